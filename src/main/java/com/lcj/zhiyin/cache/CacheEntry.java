@@ -0,0 +1,33 @@
+package com.lcj.zhiyin.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 缓存条目：缓存值 + 软过期时间
+ * <p>
+ * 超过软过期时间后仍返回旧值，同时在后台刷新；真正的过期由 Redis TTL 和本地缓存过期时间控制。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEntry implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3121473026587610517L;
+
+    private Object value;
+
+    /**
+     * 软过期时间戳（毫秒），0 表示不提前刷新
+     */
+    private long refreshAt;
+
+    public boolean needsRefresh(long now) {
+        return refreshAt > 0 && now >= refreshAt;
+    }
+}
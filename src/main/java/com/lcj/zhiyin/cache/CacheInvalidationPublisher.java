@@ -0,0 +1,13 @@
+package com.lcj.zhiyin.cache;
+
+/**
+ * 缓存失效通知发布
+ */
+@FunctionalInterface
+public interface CacheInvalidationPublisher {
+
+    /**
+     * 通知其他节点清除本地缓存，redisKey 为空表示清空整个缓存
+     */
+    void publish(String cacheName, String redisKey);
+}
@@ -0,0 +1,12 @@
+package com.lcj.zhiyin.cache;
+
+/**
+ * 缓存后台刷新加载器，按缓存 key 重新计算缓存值
+ * <p>
+ * 在刷新线程池中执行，不能依赖请求上下文（登录信息、事务等）。
+ */
+@FunctionalInterface
+public interface CacheRefreshLoader {
+
+    Object load(Object key) throws Exception;
+}
@@ -0,0 +1,246 @@
+package com.lcj.zhiyin.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.lcj.zhiyin.datasource.DataSourceContextHolder;
+import com.lcj.zhiyin.utils.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * 二级缓存：Caffeine 本地缓存（L1）+ Redis（L2）
+ * <p>
+ * 读取先查本地再查 Redis，Redis 命中后回填本地；写入和删除同时作用于两级，
+ * 并通过 {@link CacheInvalidationPublisher} 通知其他节点清除本地缓存。
+ * Redis 不可用时降级为只使用本地缓存。
+ * <p>
+ * 通过 {@code @Cacheable(sync = true)} 使用时，同一个 key 的并发未命中只会执行一次加载；
+ * 配置了 refreshAfter 且注册了 {@link CacheRefreshLoader} 时，超过软过期时间的条目先返回旧值，再在后台刷新。
+ * 后台刷新不使用 Spring 传入的 valueLoader，它绑定的是发起请求时的方法调用，请求返回后不应再执行。
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final String KEY_PREFIX = "zhiyin:cache:";
+
+    private final String name;
+
+    private final Cache<String, Object> localCache;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final Duration ttl;
+
+    /**
+     * 软过期时间，为空表示不提前刷新
+     */
+    private final Duration refreshAfter;
+
+    private final Executor refreshExecutor;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+
+    /**
+     * 后台刷新使用的加载器，为空时不提前刷新，条目到 ttl 后过期重新加载
+     */
+    private volatile CacheRefreshLoader refreshLoader;
+
+    public TwoLevelCache(String name, Cache<String, Object> localCache, RedisTemplate<String, Object> redisTemplate,
+                         Duration ttl, Duration refreshAfter, Executor refreshExecutor,
+                         CacheInvalidationPublisher invalidationPublisher) {
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.refreshAfter = refreshAfter;
+        this.refreshExecutor = refreshExecutor;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        CacheEntry cacheEntry = lookupEntry(toRedisKey(key));
+        return cacheEntry == null ? null : cacheEntry.getValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String redisKey = toRedisKey(key);
+        CacheEntry cacheEntry = lookupEntry(redisKey);
+        if (cacheEntry != null) {
+            CacheRefreshLoader loader = refreshLoader;
+            if (loader != null && cacheEntry.needsRefresh(System.currentTimeMillis())) {
+                refreshAsync(key, redisKey, loader);
+            }
+            return (T) fromStoreValue(cacheEntry.getValue());
+        }
+        // 未命中时同一个 key 只由一个线程加载，其余线程等待结果
+        Object storeValue = singleFlight.execute(redisKey, () -> {
+            // 排队期间上一次加载可能已经写入
+            CacheEntry loadedEntry = lookupEntry(redisKey);
+            if (loadedEntry != null) {
+                return loadedEntry.getValue();
+            }
+            return load(key, redisKey, valueLoader);
+        });
+        return (T) fromStoreValue(storeValue);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String redisKey = toRedisKey(key);
+        putEntry(redisKey, toStoreValue(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        String redisKey = toRedisKey(key);
+        try {
+            redisTemplate.delete(redisKey);
+        } catch (Exception e) {
+            log.error("redis delete key error", e);
+        }
+        localCache.invalidate(redisKey);
+        invalidationPublisher.publish(name, redisKey);
+    }
+
+    @Override
+    public void clear() {
+        // 按前缀 SCAN 删除，避免 KEYS 阻塞 Redis
+        ScanOptions scanOptions = ScanOptions.scanOptions().match(KEY_PREFIX + name + ":*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(scanOptions)) {
+            List<String> redisKeys = new ArrayList<>();
+            while (cursor.hasNext()) {
+                redisKeys.add(cursor.next());
+                if (redisKeys.size() >= 500) {
+                    redisTemplate.delete(redisKeys);
+                    redisKeys.clear();
+                }
+            }
+            if (!redisKeys.isEmpty()) {
+                redisTemplate.delete(redisKeys);
+            }
+        } catch (Exception e) {
+            log.error("redis clear cache error, cacheName => {}", name, e);
+        }
+        localCache.invalidateAll();
+        invalidationPublisher.publish(name, null);
+    }
+
+    /**
+     * 其他节点修改后只清除本地缓存
+     */
+    public void evictLocal(String redisKey) {
+        localCache.invalidate(redisKey);
+    }
+
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    public void setRefreshLoader(CacheRefreshLoader refreshLoader) {
+        this.refreshLoader = refreshLoader;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * 按当前缓存的软过期配置包装缓存值
+     */
+    private CacheEntry newEntry(Object value) {
+        long refreshAt = refreshAfter == null ? 0 : System.currentTimeMillis() + refreshAfter.toMillis();
+        return new CacheEntry(toStoreValue(value), refreshAt);
+    }
+
+    private CacheEntry lookupEntry(String redisKey) {
+        Object value = localCache.getIfPresent(redisKey);
+        if (value != null) {
+            return toCacheEntry(value);
+        }
+        try {
+            value = redisTemplate.opsForValue().get(redisKey);
+        } catch (Exception e) {
+            log.error("redis get key error", e);
+            return null;
+        }
+        if (value == null) {
+            return null;
+        }
+        CacheEntry cacheEntry = toCacheEntry(value);
+        localCache.put(redisKey, cacheEntry);
+        return cacheEntry;
+    }
+
+    private void putEntry(String redisKey, Object storeValue) {
+        CacheEntry cacheEntry = newEntry(storeValue);
+        try {
+            redisTemplate.opsForValue().set(redisKey, cacheEntry, ttl);
+        } catch (Exception e) {
+            log.error("redis set key error", e);
+        }
+        localCache.put(redisKey, cacheEntry);
+        invalidationPublisher.publish(name, redisKey);
+    }
+
+    /**
+     * 加载结果会写入缓存，在主库上执行，避免从库延迟把刚失效的旧数据写回缓存
+     */
+    private Object load(Object key, String redisKey, Callable<?> valueLoader) {
+        Object value = DataSourceContextHolder.callOnPrimary(() -> {
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+        Object storeValue = toStoreValue(value);
+        putEntry(redisKey, storeValue);
+        return storeValue;
+    }
+
+    /**
+     * 后台刷新，不持有调用方的线程上下文（登录信息、事务等），同一个 key 同时只有一个刷新任务
+     */
+    private void refreshAsync(Object key, String redisKey, CacheRefreshLoader loader) {
+        singleFlight.executeAsync(redisKey, () -> load(key, redisKey, () -> loader.load(key)), refreshExecutor)
+                .exceptionally(e -> {
+                    log.warn("刷新缓存失败, key => {}", redisKey, e);
+                    return null;
+                });
+    }
+
+    private String toRedisKey(Object key) {
+        return KEY_PREFIX + name + ":" + key;
+    }
+
+    /**
+     * 兼容没有包装成 CacheEntry 的旧数据
+     */
+    private static CacheEntry toCacheEntry(Object value) {
+        return value instanceof CacheEntry cacheEntry ? cacheEntry : new CacheEntry(value, 0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.lcj.zhiyin.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lcj.zhiyin.config.TwoLevelCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * 二级缓存管理器
+ * <p>
+ * 本节点修改缓存后通过 Redis 发布订阅广播失效消息，其他节点收到后清除对应的本地缓存。
+ * 消息格式：节点id|缓存名称|redisKey，没有 redisKey 表示清空整个缓存。
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager
+        implements CacheInvalidationPublisher, MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "zhiyin:cache:invalidate";
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 当前节点标识，忽略自己发出的消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, TwoLevelCache> cacheMap = new ConcurrentHashMap<>();
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final TwoLevelCacheProperties cacheProperties;
+
+    private final Executor refreshExecutor;
+
+    public TwoLevelCacheManager(RedisTemplate<String, Object> redisTemplate, StringRedisTemplate stringRedisTemplate,
+                                TwoLevelCacheProperties cacheProperties, Executor refreshExecutor) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheProperties = cacheProperties;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return cacheProperties.getCaches().keySet().stream()
+                .map(this::createCache)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    /**
+     * 获取未经事务装饰的二级缓存
+     */
+    public TwoLevelCache getTwoLevelCache(String name) {
+        return createCache(name);
+    }
+
+    /**
+     * 注册缓存的后台刷新加载器，未注册的缓存不提前刷新
+     */
+    public void registerRefreshLoader(String cacheName, CacheRefreshLoader refreshLoader) {
+        createCache(cacheName).setRefreshLoader(refreshLoader);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        return cacheMap.computeIfAbsent(name, cacheName -> {
+            TwoLevelCacheProperties.CacheSpec spec = cacheProperties.getSpec(cacheName);
+            com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                    .maximumSize(spec.getMaximumSize())
+                    .expireAfterWrite(spec.getLocalTtl())
+                    .build();
+            return new TwoLevelCache(cacheName, localCache, redisTemplate, spec.getTtl(),
+                    spec.getRefreshAfter(), refreshExecutor, this);
+        });
+    }
+
+    @Override
+    public void publish(String cacheName, String redisKey) {
+        String message = nodeId + SEPARATOR + cacheName + (redisKey == null ? "" : SEPARATOR + redisKey);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, message);
+        } catch (Exception e) {
+            log.error("publish cache invalidation error, cacheName => {}", cacheName, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = cacheMap.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 2) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+    }
+}
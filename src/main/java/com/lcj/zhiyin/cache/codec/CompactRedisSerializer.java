@@ -0,0 +1,118 @@
+package com.lcj.zhiyin.cache.codec;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Redis 缓存值序列化：带版本的数据头 + 可替换的编码器 + 超过阈值时 LZ4 压缩
+ * <pre>
+ * | magic(1) | version(1) | format(1) | flags(1) | [原始长度(4)，压缩时] | payload |
+ * </pre>
+ * 没有数据头的旧数据按 JDK 序列化解码，切换编码期间已有缓存仍可读取。
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = 0x5A;
+
+    private static final byte VERSION = 1;
+
+    private static final byte FLAG_LZ4 = 1;
+
+    private static final int HEADER_LENGTH = 4;
+
+    private final ValueCodec primaryCodec;
+
+    private final ValueCodec fallbackCodec;
+
+    private final List<ValueCodec> codecs;
+
+    /**
+     * 编码后超过该字节数才压缩
+     */
+    private final int compressThreshold;
+
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    public CompactRedisSerializer(ValueCodec primaryCodec, ValueCodec fallbackCodec, int compressThreshold) {
+        this.primaryCodec = primaryCodec;
+        this.fallbackCodec = fallbackCodec;
+        this.codecs = List.of(primaryCodec, fallbackCodec);
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        ValueCodec codec = primaryCodec.canEncode(value) ? primaryCodec : fallbackCodec;
+        byte[] payload;
+        try {
+            payload = codec.encode(value);
+        } catch (Exception e) {
+            throw new SerializationException("编码缓存值失败: " + value.getClass().getName(), e);
+        }
+
+        if (payload.length > compressThreshold) {
+            byte[] compressed = new byte[compressor.maxCompressedLength(payload.length)];
+            int compressedLength = compressor.compress(payload, 0, payload.length, compressed, 0, compressed.length);
+            // 压缩收益不明显（已压缩过的数据等）时保留原文
+            if (compressedLength + Integer.BYTES < payload.length) {
+                return ByteBuffer.allocate(HEADER_LENGTH + Integer.BYTES + compressedLength)
+                        .put(MAGIC).put(VERSION).put(codec.getFormat()).put(FLAG_LZ4)
+                        .putInt(payload.length)
+                        .put(compressed, 0, compressedLength)
+                        .array();
+            }
+        }
+        return ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+                .put(MAGIC).put(VERSION).put(codec.getFormat()).put((byte) 0)
+                .put(payload)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC) {
+                return fallbackCodec.decode(bytes, 0, bytes.length);
+            }
+            if (bytes[1] > VERSION) {
+                throw new SerializationException("不支持的缓存数据版本: " + bytes[1]);
+            }
+            ValueCodec codec = findCodec(bytes[2]);
+            if ((bytes[3] & FLAG_LZ4) == 0) {
+                return codec.decode(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            }
+            int originalLength = ByteBuffer.wrap(bytes, HEADER_LENGTH, Integer.BYTES).getInt();
+            byte[] payload = new byte[originalLength];
+            decompressor.decompress(bytes, HEADER_LENGTH + Integer.BYTES, payload, 0, originalLength);
+            return codec.decode(payload, 0, originalLength);
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SerializationException("解码缓存值失败: " + Arrays.toString(Arrays.copyOf(bytes, Math.min(bytes.length, 8))), e);
+        }
+    }
+
+    private ValueCodec findCodec(byte format) {
+        for (ValueCodec codec : codecs) {
+            if (codec.getFormat() == format) {
+                return codec;
+            }
+        }
+        throw new SerializationException("未知的缓存编码格式: " + format);
+    }
+}
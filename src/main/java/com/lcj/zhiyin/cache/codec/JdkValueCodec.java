@@ -0,0 +1,37 @@
+package com.lcj.zhiyin.cache.codec;
+
+import java.io.*;
+
+/**
+ * JDK 序列化编码，作为无法用 Smile 编码的值的兜底
+ */
+public class JdkValueCodec implements ValueCodec {
+
+    public static final byte FORMAT = 2;
+
+    @Override
+    public byte getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public boolean canEncode(Object value) {
+        return value instanceof Serializable;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(value);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes, offset, length))) {
+            return objectInputStream.readObject();
+        }
+    }
+}
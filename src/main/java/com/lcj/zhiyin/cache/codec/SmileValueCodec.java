@@ -0,0 +1,126 @@
+package com.lcj.zhiyin.cache.codec;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.lcj.zhiyin.cache.CacheEntry;
+import org.springframework.cache.support.NullValue;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Smile（二进制 JSON）编码，按属性名读写，实体增删字段后旧数据仍可解码
+ */
+public class SmileValueCodec implements ValueCodec {
+
+    public static final byte FORMAT = 1;
+
+    private final ObjectMapper objectMapper;
+
+    public SmileValueCodec() {
+        // 只允许反序列化项目内的类和 JDK 常用类型，避免任意类型反序列化
+        BasicPolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.lcj.zhiyin.")
+                .allowIfSubType("com.baomidou.mybatisplus.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("java.lang.")
+                .build();
+        TypeResolverBuilder<?> typeResolverBuilder = new JdkCollectionTypeResolverBuilder(typeValidator)
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY);
+        this.objectMapper = SmileMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setDefaultTyping(typeResolverBuilder)
+                .build();
+    }
+
+    @Override
+    public byte getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public boolean canEncode(Object value) {
+        // Spring Cache 的空值占位对象（包括包装在缓存条目里的）交给 JDK 序列化
+        if (value instanceof CacheEntry cacheEntry) {
+            return !(cacheEntry.getValue() instanceof NullValue);
+        }
+        return !(value instanceof NullValue);
+    }
+
+    @Override
+    public byte[] encode(Object value) throws Exception {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) throws Exception {
+        return objectMapper.readValue(bytes, offset, length, Object.class);
+    }
+
+    /**
+     * 非 final 类型写入类名，JDK 内部集合（List.of、Collections.emptyList 等）没有可用的构造方法，
+     * 写入时换成对应的常用实现类
+     */
+    private static class JdkCollectionTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        JdkCollectionTypeResolverBuilder(PolymorphicTypeValidator typeValidator) {
+            super(ObjectMapper.DefaultTyping.NON_FINAL, typeValidator);
+        }
+
+        @Override
+        protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                                            PolymorphicTypeValidator subtypeValidator, Collection<NamedType> subtypes,
+                                            boolean forSer, boolean forDeser) {
+            return new JdkCollectionIdResolver(baseType, config.getTypeFactory(), subtypeValidator);
+        }
+    }
+
+    private static class JdkCollectionIdResolver extends ClassNameIdResolver {
+
+        JdkCollectionIdResolver(JavaType baseType, TypeFactory typeFactory, PolymorphicTypeValidator typeValidator) {
+            super(baseType, typeFactory, typeValidator);
+        }
+
+        @Override
+        public String idFromValue(Object value) {
+            return idFromValueAndType(value, value.getClass());
+        }
+
+        @Override
+        public String idFromValueAndType(Object value, Class<?> type) {
+            if (type.getName().startsWith("java.util.") && !isPublicCollection(type)) {
+                if (value instanceof List) {
+                    return ArrayList.class.getName();
+                }
+                if (value instanceof Set) {
+                    return LinkedHashSet.class.getName();
+                }
+                if (value instanceof Map && !(value instanceof EnumMap)) {
+                    return LinkedHashMap.class.getName();
+                }
+            }
+            return super.idFromValueAndType(value, type);
+        }
+
+        private static boolean isPublicCollection(Class<?> type) {
+            return Modifier.isPublic(type.getModifiers()) && type.getEnclosingClass() == null;
+        }
+    }
+}
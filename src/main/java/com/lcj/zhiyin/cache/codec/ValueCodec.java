@@ -0,0 +1,21 @@
+package com.lcj.zhiyin.cache.codec;
+
+/**
+ * 缓存值编码器
+ */
+public interface ValueCodec {
+
+    /**
+     * 编码格式标识，写入数据头，解码时据此选择编码器
+     */
+    byte getFormat();
+
+    /**
+     * 是否能编码该值，不能时由备用编码器处理
+     */
+    boolean canEncode(Object value);
+
+    byte[] encode(Object value) throws Exception;
+
+    Object decode(byte[] bytes, int offset, int length) throws Exception;
+}
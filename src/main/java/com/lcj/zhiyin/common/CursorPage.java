@@ -0,0 +1,32 @@
+package com.lcj.zhiyin.common;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 通用游标分页结果
+ */
+@Data
+public class CursorPage<T> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4128409175726021317L;
+
+    private List<T> records = Collections.emptyList();
+
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    /**
+     * 近似总数（来自缓存，可能为 null）
+     */
+    private Long total;
+}
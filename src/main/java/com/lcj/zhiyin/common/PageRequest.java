@@ -21,7 +21,7 @@ public class PageRequest implements Serializable {
     protected int pageNum = 1;
 
     public void setPageSize(int pageSize) {
-        this.pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+        this.pageSize = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
     }
 
 }
@@ -0,0 +1,36 @@
+package com.lcj.zhiyin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 软删除数据归档配置，需要先建好归档表再开启
+ */
+@Data
+@ConfigurationProperties(prefix = "zhiyin.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 软删除超过多长时间的记录才归档（按 update_time 判断）
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * 每个事务归档的行数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 两批之间的停顿，给主库和从库复制留出余量
+     */
+    private Duration batchPause = Duration.ofMillis(200);
+
+    /**
+     * 单次执行的最长时间，超出后剩余数据留到下次
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+}
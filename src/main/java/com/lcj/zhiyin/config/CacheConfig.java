@@ -0,0 +1,52 @@
+package com.lcj.zhiyin.config;
+
+import com.lcj.zhiyin.cache.TwoLevelCacheManager;
+import com.lcj.zhiyin.service.impl.TeamRecommendServiceImpl;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 缓存配置：本地 Caffeine + Redis 二级缓存，通过 @Cacheable / @CacheEvict 使用
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties({TwoLevelCacheProperties.class, CacheWarmProperties.class, UserFeedProperties.class,
+        ArchiveProperties.class})
+public class CacheConfig {
+
+    /**
+     * 缓存写入和删除在事务提交后执行，与其他缓存清除保持一致
+     */
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisTemplate<String, Object> redisTemplate,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             TwoLevelCacheProperties cacheProperties,
+                                             ThreadPoolTaskExecutor cacheRefreshExecutor) {
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisTemplate, stringRedisTemplate,
+                cacheProperties, cacheRefreshExecutor);
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    /**
+     * 订阅缓存失效消息，清除本节点的本地缓存；同时订阅队伍推荐索引的变更，同步本节点的内存索引
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            TeamRecommendServiceImpl teamRecommendService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATE_CHANNEL));
+        container.addMessageListener(teamRecommendService, new ChannelTopic(TeamRecommendServiceImpl.SYNC_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,62 @@
+package com.lcj.zhiyin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 缓存预热配置
+ */
+@Data
+@ConfigurationProperties(prefix = "zhiyin.warm")
+public class CacheWarmProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 固定预热的重点用户
+     */
+    private List<Long> hotUserIds = new ArrayList<>(List.of(1L));
+
+    /**
+     * 最近多长时间内登录过的用户视为活跃用户
+     */
+    private Duration activeWindow = Duration.ofDays(1);
+
+    /**
+     * 每轮最多预热的活跃用户数
+     */
+    private int activeUserLimit = 50;
+
+    /**
+     * 预热任务并发数
+     */
+    private int parallelism = 4;
+
+    /**
+     * 停用的预热器名称
+     */
+    private List<String> disabledWarmers = new ArrayList<>();
+
+    /**
+     * 推荐用户预热的页数和每页大小
+     */
+    private int recommendPages = 1;
+
+    private int recommendPageSize = 20;
+
+    /**
+     * 匹配用户预热的匹配人数（与前端请求的 num 一致才能命中）
+     */
+    private int matchNum = 10;
+
+    /**
+     * 队伍列表（默认查询条件）预热的页数和每页大小
+     */
+    private int teamListPages = 1;
+
+    private int teamListPageSize = 10;
+}
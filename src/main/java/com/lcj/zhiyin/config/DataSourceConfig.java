@@ -0,0 +1,80 @@
+package com.lcj.zhiyin.config;
+
+import com.lcj.zhiyin.datasource.DataSourceRoutingAspect;
+import com.lcj.zhiyin.datasource.DataSourceType;
+import com.lcj.zhiyin.datasource.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置，配置了从库地址时生效，否则使用 Spring Boot 默认的单数据源
+ * <pre>
+ * zhiyin.datasource.replica.jdbc-url=jdbc:mysql://replica:3306/zhiyin
+ * zhiyin.datasource.replica.username=...
+ * zhiyin.datasource.replica.password=...
+ * zhiyin.datasource.replica.maximum-pool-size=20
+ * zhiyin.datasource.sticky-window=5s
+ * </pre>
+ * 主库沿用 spring.datasource.*，两个连接池名称不同，监控指标按连接池分别统计。
+ * 本地可以把从库地址指向另一个本地数据库实例验证路由。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "zhiyin.datasource.replica", name = "jdbc-url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("zhiyin-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("zhiyin.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("zhiyin-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * 实际使用的数据源：按只读标记路由，延迟获取连接
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        RoutingDataSource routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.<Object, Object>of(
+                DataSourceType.PRIMARY, primaryDataSource,
+                DataSourceType.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 读己之写的粘滞时间，0 表示不启用
+     */
+    @Bean
+    public DataSourceRoutingAspect dataSourceRoutingAspect(
+            @Value("${zhiyin.datasource.sticky-window:0s}") Duration stickyWindow) {
+        return new DataSourceRoutingAspect(stickyWindow);
+    }
+}
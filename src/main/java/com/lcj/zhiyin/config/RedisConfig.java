@@ -0,0 +1,38 @@
+package com.lcj.zhiyin.config;
+
+import com.lcj.zhiyin.cache.codec.CompactRedisSerializer;
+import com.lcj.zhiyin.cache.codec.JdkValueCodec;
+import com.lcj.zhiyin.cache.codec.SmileValueCodec;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Redis 配置
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * 缓存值超过 1KB 时压缩
+     */
+    private static final int COMPRESS_THRESHOLD = 1024;
+
+    /**
+     * key 使用字符串，value 使用 Smile 编码（无法编码时退回 JDK 序列化）并按大小压缩
+     */
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        CompactRedisSerializer valueSerializer =
+                new CompactRedisSerializer(new SmileValueCodec(), new JdkValueCodec(), COMPRESS_THRESHOLD);
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setHashKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(valueSerializer);
+        redisTemplate.setHashValueSerializer(valueSerializer);
+        return redisTemplate;
+    }
+}
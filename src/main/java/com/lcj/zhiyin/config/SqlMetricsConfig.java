@@ -0,0 +1,27 @@
+package com.lcj.zhiyin.config;
+
+import com.lcj.zhiyin.datasource.SqlMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * SQL 耗时统计配置，拦截器注册为 Bean 后由 MyBatis-Plus 自动装配到 SqlSessionFactory
+ * <pre>
+ * zhiyin.sql-metrics.slow-threshold=200ms
+ * management.endpoints.web.exposure.include=health,metrics,prometheus
+ * </pre>
+ */
+@Configuration
+@EnableConfigurationProperties(SqlMetricsProperties.class)
+@ConditionalOnProperty(prefix = "zhiyin.sql-metrics", name = "enabled", matchIfMissing = true)
+public class SqlMetricsConfig {
+
+    @Bean
+    public SqlMetricsInterceptor sqlMetricsInterceptor(MeterRegistry meterRegistry,
+                                                       SqlMetricsProperties sqlMetricsProperties) {
+        return new SqlMetricsInterceptor(meterRegistry, sqlMetricsProperties.getSlowThreshold());
+    }
+}
@@ -0,0 +1,21 @@
+package com.lcj.zhiyin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * SQL 耗时统计配置
+ */
+@Data
+@ConfigurationProperties(prefix = "zhiyin.sql-metrics")
+public class SqlMetricsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 超过该耗时的语句记录慢查询日志
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+}
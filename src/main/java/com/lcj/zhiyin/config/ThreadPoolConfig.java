@@ -0,0 +1,117 @@
+package com.lcj.zhiyin.config;
+
+import com.lcj.zhiyin.datasource.DataSourceContextHolder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 线程池配置
+ */
+@Configuration
+public class ThreadPoolConfig {
+
+    /**
+     * 定时任务线程池，线程数不少于 @Scheduled 方法数，长任务（归档、预热、重建推荐）
+     * 不会阻塞每 200ms 执行一次的排队加入消费任务；同一任务不会并发执行
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(8);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+
+    /**
+     * 队伍列表填充查询使用的有界线程池，队列满时由调用线程执行，不丢弃任务
+     * 任务沿用提交线程的数据源选择（读写分离时填充查询同样走从库）
+     */
+    @Bean
+    public ThreadPoolTaskExecutor teamQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("team-query-");
+        executor.setTaskDecorator(DataSourceContextHolder.taskDecorator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * 缓存预热线程池，线程数即预热并发上限
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheWarmExecutor(CacheWarmProperties cacheWarmProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cacheWarmProperties.getParallelism());
+        executor.setMaxPoolSize(cacheWarmProperties.getParallelism());
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("cache-warm-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * 缓存后台刷新线程池，队列满时拒绝（跳过本次刷新，旧值仍可用到真正过期）
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * 批量导入用户任务线程池，同时最多执行 1 个导入、排队 2 个，超出时拒绝提交
+     */
+    @Bean
+    public ThreadPoolTaskExecutor userImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(2);
+        executor.setThreadNamePrefix("user-import-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * 归档任务线程池，归档可能持续数分钟，不占用定时任务线程；上一轮仍在执行时拒绝提交
+     */
+    @Bean
+    public ThreadPoolTaskExecutor archiveExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("archive-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * 密码哈希线程池，BCrypt 是 CPU 密集型，线程数不超过 CPU 核数的一半，避免影响在线请求
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(2000);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,60 @@
+package com.lcj.zhiyin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 二级缓存配置，按缓存名称分别配置过期时间和本地缓存容量
+ * <pre>
+ * zhiyin.cache.caches.recommend_users.ttl=10m
+ * zhiyin.cache.caches.recommend_users.local-ttl=1m
+ * zhiyin.cache.caches.recommend_users.maximum-size=500
+ * zhiyin.cache.caches.recommend_users.refresh-after=8m
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "zhiyin.cache")
+public class TwoLevelCacheProperties {
+
+    /**
+     * 未单独配置的缓存使用的默认配置
+     */
+    private CacheSpec defaultSpec = new CacheSpec();
+
+    /**
+     * 缓存名称 -> 配置
+     */
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    public CacheSpec getSpec(String cacheName) {
+        return caches.getOrDefault(cacheName, defaultSpec);
+    }
+
+    @Data
+    public static class CacheSpec {
+
+        /**
+         * Redis（二级缓存）过期时间
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * 本地（一级缓存）过期时间，应不大于 ttl
+         */
+        private Duration localTtl = Duration.ofMinutes(1);
+
+        /**
+         * 本地缓存最大条目数
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * 软过期时间，超过后先返回旧值并在后台刷新（需 @Cacheable(sync = true)），为空不提前刷新
+         */
+        private Duration refreshAfter;
+    }
+}
@@ -0,0 +1,51 @@
+package com.lcj.zhiyin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户推荐流配置
+ */
+@Data
+@ConfigurationProperties(prefix = "zhiyin.feed")
+public class UserFeedProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 为最近多长时间内登录过的用户生成推荐流
+     */
+    private Duration activeWindow = Duration.ofDays(7);
+
+    /**
+     * 每轮最多生成推荐流的用户数
+     */
+    private int activeUserLimit = 2000;
+
+    /**
+     * 每个用户推荐流的长度
+     */
+    private int feedSize = 200;
+
+    /**
+     * 全局热门列表的长度（没有推荐流的用户使用）
+     */
+    private int popularSize = 200;
+
+    /**
+     * 标签相似度的权重，其余为活跃度权重
+     */
+    private double tagWeight = 0.8;
+
+    /**
+     * 活跃度半衰期，距上次登录每过一个半衰期活跃度减半
+     */
+    private Duration activityHalfLife = Duration.ofDays(3);
+
+    /**
+     * 推荐流过期时间，应大于生成间隔
+     */
+    private Duration ttl = Duration.ofDays(2);
+}
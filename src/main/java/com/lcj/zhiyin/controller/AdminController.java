@@ -0,0 +1,56 @@
+package com.lcj.zhiyin.controller;
+
+import com.lcj.zhiyin.service.DataExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 管理员接口
+ */
+@RestController
+@RequestMapping("/admin")
+@Slf4j
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name="Admin控制器")
+public class AdminController {
+
+    private final DataExportService dataExportService;
+
+    /**
+     * 导出直接写入响应流，不经过异步请求，因此不受 spring.mvc.async.request-timeout 限制
+     */
+    @Operation(summary = "导出全部用户", description = "ADMIN，format 为 ndjson（默认）或 csv")
+    @GetMapping("/export/users")
+    public void exportUsers(@RequestParam(required = false) String format, HttpServletResponse response) throws IOException {
+        String resolvedFormat = dataExportService.resolveFormat(format);
+        prepareResponse(response, "users", resolvedFormat);
+        dataExportService.exportUsers(resolvedFormat, response.getOutputStream());
+    }
+
+    @Operation(summary = "导出全部队伍", description = "ADMIN，format 为 ndjson（默认）或 csv")
+    @GetMapping("/export/teams")
+    public void exportTeams(@RequestParam(required = false) String format, HttpServletResponse response) throws IOException {
+        String resolvedFormat = dataExportService.resolveFormat(format);
+        prepareResponse(response, "teams", resolvedFormat);
+        dataExportService.exportTeams(resolvedFormat, response.getOutputStream());
+    }
+
+    private static void prepareResponse(HttpServletResponse response, String name, String format) {
+        String filename = name + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "." + format;
+        response.setContentType("csv".equals(format) ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+    }
+}
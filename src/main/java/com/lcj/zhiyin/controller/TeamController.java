@@ -1,32 +1,34 @@
 package com.lcj.zhiyin.controller;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.lcj.zhiyin.exception.BusinessException;
 import com.lcj.zhiyin.common.BaseResponse;
+import com.lcj.zhiyin.common.CursorPage;
 import com.lcj.zhiyin.common.DeleteRequest;
 import com.lcj.zhiyin.common.ErrorCode;
+import com.lcj.zhiyin.common.PageRequest;
 import com.lcj.zhiyin.common.ResultUtils;
 import com.lcj.zhiyin.model.domain.Team;
 import com.lcj.zhiyin.model.domain.User;
-import com.lcj.zhiyin.model.domain.UserTeam;
 import com.lcj.zhiyin.model.dto.TeamQuery;
 import com.lcj.zhiyin.model.request.TeamCreateRequest;
 import com.lcj.zhiyin.model.request.TeamJoinRequest;
 import com.lcj.zhiyin.model.request.TeamQuitRequest;
 import com.lcj.zhiyin.model.request.TeamUpdateRequest;
+import com.lcj.zhiyin.model.vo.JoinTicketVO;
+import com.lcj.zhiyin.model.vo.TeamMemberVO;
 import com.lcj.zhiyin.model.vo.TeamUserVO;
+import com.lcj.zhiyin.service.TeamJoinQueueService;
 import com.lcj.zhiyin.service.TeamService;
 import com.lcj.zhiyin.service.UserService;
-import com.lcj.zhiyin.service.UserTeamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -34,7 +36,6 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 队伍接口
@@ -51,7 +52,7 @@ public class TeamController {
     //? : 与使用@AllArgsConstructor有什么区别？
     private final TeamService teamService;
     private final UserService userService;
-    private final UserTeamService userTeamService;
+    private final TeamJoinQueueService teamJoinQueueService;
 
     // TODO: 是否允许队伍重名？
     @Operation(summary = "创建队伍")
@@ -87,6 +88,28 @@ public class TeamController {
         return ResultUtils.success(teamList);
     }
 
+    @Operation(summary = "队伍 列表查询（游标分页）", description = "条件, 不执行 COUNT")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/list/cursor")
+    public BaseResponse<CursorPage<TeamUserVO>> listTeamsByCursor(TeamQuery teamQuery) {
+        CursorPage<TeamUserVO> teamList = teamService.listTeamsByCursor(teamQuery, userService.getLoginUser().getUserAccount());
+        return ResultUtils.success(teamList);
+    }
+
+    @Operation(summary = "推荐队伍", description = "按成员标签与当前用户标签的匹配度")
+    @GetMapping("/recommend")
+    public BaseResponse<List<TeamUserVO>> recommendTeams(@RequestParam(defaultValue = "10") @Min(1) int num) {
+        User loginUser = userService.getLoginUser();
+        return ResultUtils.success(teamService.recommendTeams(num, loginUser));
+    }
+
+    @Operation(summary = "队伍成员列表", description = "按加入时间先后, 分页")
+    @GetMapping("/members")
+    public BaseResponse<Page<TeamMemberVO>> listTeamMembers(@RequestParam @Min(1) long teamId, PageRequest pageRequest) {
+        User loginUser = userService.getLoginUser();
+        return ResultUtils.success(teamService.listTeamMembers(teamId, pageRequest, loginUser));
+    }
+
     @Operation(summary = "加入队伍")
     @PostMapping("/join")
     public BaseResponse<Boolean> joinTeam(@RequestBody TeamJoinRequest teamJoinRequest) {
@@ -94,6 +117,20 @@ public class TeamController {
         return ResultUtils.success(teamService.joinTeam(teamJoinRequest, loginUser));
     }
 
+    @Operation(summary = "排队加入队伍", description = "热门队伍使用, 返回排队凭证")
+    @PostMapping("/join/queue")
+    public BaseResponse<String> joinTeamQueued(@Valid @RequestBody TeamJoinRequest teamJoinRequest) {
+        User loginUser = userService.getLoginUser();
+        return ResultUtils.success(teamJoinQueueService.enqueue(teamJoinRequest, loginUser));
+    }
+
+    @Operation(summary = "查询排队加入结果")
+    @GetMapping("/join/ticket")
+    public BaseResponse<JoinTicketVO> getJoinTicket(@RequestParam @NotBlank String ticket) {
+        User loginUser = userService.getLoginUser();
+        return ResultUtils.success(teamJoinQueueService.getTicket(ticket, loginUser));
+    }
+
     @PostMapping("/quit")
     public BaseResponse<Boolean> quitTeam(@Valid @RequestBody TeamQuitRequest teamQuitRequest) {
         if (teamQuitRequest == null) {
@@ -128,22 +165,7 @@ public class TeamController {
     @GetMapping("/list/my/join")
     public BaseResponse<Page<TeamUserVO>> listMyJoinTeams(@Valid TeamQuery teamQuery) {
         User loginUser = userService.getLoginUser();
-
-        // 获取当前用户已加入的队伍ID
-        List<UserTeam> userTeamList = userTeamService.list(
-                new LambdaQueryWrapper<UserTeam>()
-                        .eq(UserTeam::getUserId, loginUser.getId())
-        );
-
-        // 直接提取唯一的队伍ID
-        List<Long> idList = userTeamList.stream()
-                .map(UserTeam::getTeamId)
-                .distinct()
-                .collect(Collectors.toList());
-        teamQuery.setIdList(idList);
-
-        Page<TeamUserVO> teamList = teamService.listTeams(teamQuery, loginUser.getUserAccount());
-        return ResultUtils.success(teamList);
+        return ResultUtils.success(teamService.listMyJoinTeams(teamQuery, loginUser));
     }
 
 }
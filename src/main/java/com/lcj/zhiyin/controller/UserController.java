@@ -2,6 +2,7 @@ package com.lcj.zhiyin.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.lcj.zhiyin.common.BaseResponse;
+import com.lcj.zhiyin.common.CursorPage;
 import com.lcj.zhiyin.common.ErrorCode;
 import com.lcj.zhiyin.common.ResultUtils;
 import com.lcj.zhiyin.common.response.LoginResponseData;
@@ -9,6 +10,9 @@ import com.lcj.zhiyin.exception.BusinessException;
 import com.lcj.zhiyin.model.domain.User;
 import com.lcj.zhiyin.model.request.UserLoginRequest;
 import com.lcj.zhiyin.model.request.UserRegisterRequest;
+import com.lcj.zhiyin.model.vo.UserImportVO;
+import com.lcj.zhiyin.service.UserFeedService;
+import com.lcj.zhiyin.service.UserImportService;
 import com.lcj.zhiyin.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.headers.Header;
@@ -20,13 +24,13 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -44,6 +48,12 @@ public class UserController {
     @Resource
     private UserService userService;
 
+    @Resource
+    private UserFeedService userFeedService;
+
+    @Resource
+    private UserImportService userImportService;
+
     @Operation(summary = "用户注册请求")
     @PostMapping("/register")
     public BaseResponse<Long> userRegister(@RequestBody @Validated UserRegisterRequest request) {
@@ -97,15 +107,30 @@ public class UserController {
     }
 
     /**
-     * 获取推荐用户（通过缓存）//todo: 这只是分页查询？
+     * 获取推荐用户（缓存在 UserService 中）//todo: 这只是分页查询？
      */
-    @Cacheable(value = "recommend_users", key = "#pageNum + '-' + #pageSize")
     @GetMapping("/recommend")
-    public BaseResponse<Page<User>> recommendUsers(@RequestParam long pageSize, @RequestParam long pageNum) {
-        Page<User> userPage = userService.page(new Page<>(pageNum, pageSize));
+    public BaseResponse<Page<User>> recommendUsers(@RequestParam @Min(1) @Max(100) long pageSize,
+                                                   @RequestParam @Min(1) long pageNum) {
+        Page<User> userPage = userService.recommendUsers(pageNum, pageSize);
         return ResultUtils.success(userPage);
     }
 
+    @Operation(summary = "获取推荐用户（游标分页）", description = "不执行 COUNT, 深分页不变慢")
+    @GetMapping("/recommend/cursor")
+    public BaseResponse<CursorPage<User>> recommendUsersByCursor(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "20") @Min(1) @Max(100) int pageSize) {
+        return ResultUtils.success(userService.listUsersByCursor(cursor, pageSize));
+    }
+
+    @Operation(summary = "获取个性化推荐用户", description = "按标签相似度和活跃度离线生成, 游标分页")
+    @GetMapping("/recommend/feed")
+    public BaseResponse<CursorPage<User>> recommendFeed(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") @Min(1) @Max(100) int pageSize) {
+        User loginUser = userService.getLoginUser();
+        return ResultUtils.success(userFeedService.getFeed(loginUser.getId(), cursor, pageSize));
+    }
+
     @Operation(summary = "更新用户信息", description = "ADMIN")
     @PostMapping("/update")
     public BaseResponse<Integer> updateUser(@RequestBody @Validated User user) {
@@ -120,6 +145,21 @@ public class UserController {
         return ResultUtils.success(userService.removeById(id));
     }
 
+    @Operation(summary = "批量导入用户", description = "ADMIN，支持 CSV（带表头）和 NDJSON，返回导入任务 id")
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BaseResponse<String> importUsers(@RequestPart("file") MultipartFile file,
+                                            @RequestParam(required = false) String format) {
+        return ResultUtils.success(userImportService.startImport(file, format));
+    }
+
+    @Operation(summary = "查询批量导入进度", description = "ADMIN")
+    @GetMapping("/import/progress")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BaseResponse<UserImportVO> getImportProgress(@RequestParam @NotBlank String importId) {
+        return ResultUtils.success(userImportService.getImportProgress(importId));
+    }
+
     @Operation(summary = "根据标签返回最匹配的用户")
     @GetMapping("/match")
     public BaseResponse<List<User>> matchUsers(@RequestParam @Min(1) @Max(20) long num) {
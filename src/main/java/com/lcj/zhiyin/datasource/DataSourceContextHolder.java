@@ -0,0 +1,65 @@
+package com.lcj.zhiyin.datasource;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程要使用的数据源，为空时按事务是否只读决定
+ */
+public class DataSourceContextHolder {
+
+    private static final ThreadLocal<DataSourceType> CONTEXT = new ThreadLocal<>();
+
+    public static DataSourceType get() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * 设置数据源，返回之前的值，由调用方在 finally 中通过 {@link #restore} 恢复
+     */
+    public static DataSourceType set(DataSourceType type) {
+        DataSourceType previous = CONTEXT.get();
+        CONTEXT.set(type);
+        return previous;
+    }
+
+    public static void restore(DataSourceType previous) {
+        if (previous == null) {
+            CONTEXT.remove();
+        } else {
+            CONTEXT.set(previous);
+        }
+    }
+
+    /**
+     * 在主库上执行，内部调用的 @ReadReplica 方法也不会切换到从库
+     * <p>
+     * 用于回填缓存：缓存刚被清除时从库可能还没同步到最新数据，从从库加载会把旧数据重新写回缓存。
+     */
+    public static <T> T callOnPrimary(Supplier<T> supplier) {
+        DataSourceType previous = set(DataSourceType.PRIMARY);
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 把提交任务线程的数据源选择带到线程池中执行
+     */
+    public static TaskDecorator taskDecorator() {
+        return runnable -> {
+            DataSourceType type = CONTEXT.get();
+            return () -> {
+                DataSourceType previous = set(type);
+                try {
+                    runnable.run();
+                } finally {
+                    restore(previous);
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.lcj.zhiyin.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 数据源路由切面
+ * <p>
+ * {@link ReadReplica} 和 {@code @Transactional(readOnly = true)} 方法走从库，读写事务方法走主库。
+ * 配置了粘滞时间时，用户执行读写事务后的一段时间内，该用户的读请求也走主库，避免读不到刚写入的数据
+ * （按节点本地记录，多节点时需要会话粘滞才能完全保证）。
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSourceRoutingAspect {
+
+    /**
+     * 最近写入过的用户账号，为空表示不启用粘滞
+     */
+    private final Cache<String, Boolean> recentWriters;
+
+    public DataSourceRoutingAspect(Duration stickyWindow) {
+        this.recentWriters = stickyWindow == null || stickyWindow.isZero() ? null
+                : Caffeine.newBuilder().expireAfterWrite(stickyWindow).maximumSize(100_000).build();
+    }
+
+    @Around("@annotation(com.lcj.zhiyin.datasource.ReadReplica) || @within(com.lcj.zhiyin.datasource.ReadReplica)")
+    public Object routeReadReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedWith(joinPoint, resolveReadTarget());
+    }
+
+    @Around("@annotation(transactional)")
+    public Object routeTransactional(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (transactional.readOnly()) {
+            return proceedWith(joinPoint, resolveReadTarget());
+        }
+        Object result = proceedWith(joinPoint, DataSourceType.PRIMARY);
+        markWrite();
+        return result;
+    }
+
+    private DataSourceType resolveReadTarget() {
+        // 已在主库上（读写事务中、外层已指定主库）时不切换，否则事务内的读可能拿到从库连接
+        boolean inWriteTransaction = TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (inWriteTransaction || DataSourceContextHolder.get() == DataSourceType.PRIMARY) {
+            return DataSourceType.PRIMARY;
+        }
+        String account = currentAccount();
+        if (recentWriters != null && account != null && recentWriters.getIfPresent(account) != null) {
+            return DataSourceType.PRIMARY;
+        }
+        return DataSourceType.REPLICA;
+    }
+
+    private void markWrite() {
+        String account = currentAccount();
+        if (recentWriters != null && account != null) {
+            recentWriters.put(account, Boolean.TRUE);
+        }
+    }
+
+    private static Object proceedWith(ProceedingJoinPoint joinPoint, DataSourceType type) throws Throwable {
+        DataSourceType previous = DataSourceContextHolder.set(type);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceContextHolder.restore(previous);
+        }
+    }
+
+    private static String currentAccount() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || !auth.isAuthenticated() ? null : auth.getName();
+    }
+}
@@ -0,0 +1,17 @@
+package com.lcj.zhiyin.datasource;
+
+/**
+ * 数据源类型
+ */
+public enum DataSourceType {
+
+    /**
+     * 主库，读写
+     */
+    PRIMARY,
+
+    /**
+     * 从库，只读
+     */
+    REPLICA
+}
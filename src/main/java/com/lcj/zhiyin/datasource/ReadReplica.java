@@ -0,0 +1,16 @@
+package com.lcj.zhiyin.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * 标记只读方法，方法内的查询走从库
+ * <p>
+ * 在读写事务中调用、或当前用户刚写入过（读己之写）时仍走主库；未配置从库时不生效。
+ * 从数据库加载并回填缓存的部分通过 {@link DataSourceContextHolder#callOnPrimary} 走主库。
+ * 通过代理生效，同一个类内部调用不会切换数据源。
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadReplica {
+}
@@ -0,0 +1,23 @@
+package com.lcj.zhiyin.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 读写分离路由数据源
+ * <p>
+ * 需要包装在 LazyConnectionDataSourceProxy 中使用：事务开始时还不知道是否只读，
+ * 延迟到第一条 SQL 执行时再获取连接，才能按只读标记路由。
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceType type = DataSourceContextHolder.get();
+        if (type != null) {
+            return type;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? DataSourceType.REPLICA : DataSourceType.PRIMARY;
+    }
+}
@@ -0,0 +1,147 @@
+package com.lcj.zhiyin.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * SQL 耗时统计拦截器
+ * <p>
+ * 按 Mapper 方法（如 TeamMapper.selectPageByRelevance）记录耗时直方图和返回/影响行数，
+ * 通过 /actuator/metrics/zhiyin.sql 或 /actuator/prometheus 查看。
+ * 超过阈值的语句记录慢查询日志，只输出 SQL 和参数名，不输出参数值。
+ * 返回 Cursor 的流式查询（queryCursor）不在统计范围内。
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    private static final String TIMER_NAME = "zhiyin.sql";
+
+    private static final String ROWS_NAME = "zhiyin.sql.rows";
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowThresholdNanos;
+
+    /**
+     * statement id -> 指标，避免每次执行都构建 Meter
+     */
+    private final ConcurrentHashMap<String, StatementMeters> metersMap = new ConcurrentHashMap<>();
+
+    public SqlMetricsInterceptor(MeterRegistry meterRegistry, Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        StatementMeters meters = metersMap.computeIfAbsent(mappedStatement.getId(),
+                id -> new StatementMeters(mappedStatement));
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            meters.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        int rows = rowCount(result);
+        meters.success.record(elapsed, TimeUnit.NANOSECONDS);
+        meters.rows.record(rows);
+        if (elapsed >= slowThresholdNanos) {
+            logSlowQuery(invocation, mappedStatement, elapsed, rows);
+        }
+        return result;
+    }
+
+    private static int rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        // 批量执行器返回的是占位值，不计入
+        if (result instanceof Integer count && count > 0) {
+            return count;
+        }
+        return 0;
+    }
+
+    private static void logSlowQuery(Invocation invocation, MappedStatement mappedStatement, long elapsed, int rows) {
+        Object[] args = invocation.getArgs();
+        BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : mappedStatement.getBoundSql(args[1]);
+        String sql = boundSql.getSql().replaceAll("\\s+", " ");
+        String parameterNames = boundSql.getParameterMappings().stream()
+                .map(ParameterMapping::getProperty)
+                .collect(Collectors.joining(", ", "[", "]"));
+        log.warn("慢查询 {} 耗时 => {}ms, 行数 => {}, SQL => {}, 参数 => {}",
+                shortId(mappedStatement.getId()), TimeUnit.NANOSECONDS.toMillis(elapsed), rows, sql, parameterNames);
+    }
+
+    /**
+     * com.lcj.zhiyin.mapper.TeamMapper.selectPage -> TeamMapper.selectPage
+     */
+    private static String shortId(String id) {
+        int methodIndex = id.lastIndexOf('.');
+        int classIndex = methodIndex > 0 ? id.lastIndexOf('.', methodIndex - 1) : -1;
+        return id.substring(classIndex + 1);
+    }
+
+    private class StatementMeters {
+
+        private final Timer success;
+
+        private final Timer error;
+
+        private final DistributionSummary rows;
+
+        StatementMeters(MappedStatement mappedStatement) {
+            String statement = shortId(mappedStatement.getId());
+            String type = mappedStatement.getSqlCommandType().name();
+            this.success = timer(statement, type, "success");
+            this.error = timer(statement, type, "error");
+            this.rows = DistributionSummary.builder(ROWS_NAME)
+                    .description("SQL 返回或影响的行数")
+                    .tag("statement", statement)
+                    .tag("type", type)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(String statement, String type, String outcome) {
+            return Timer.builder(TIMER_NAME)
+                    .description("SQL 执行耗时")
+                    .tag("statement", statement)
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
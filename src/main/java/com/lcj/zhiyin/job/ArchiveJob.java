@@ -0,0 +1,65 @@
+package com.lcj.zhiyin.job;
+
+import com.lcj.zhiyin.config.ArchiveProperties;
+import com.lcj.zhiyin.service.ArchiveService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 软删除数据归档任务
+ */
+@Component
+@Slf4j
+public class ArchiveJob {
+
+    @Resource
+    private ArchiveService archiveService;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private ArchiveProperties archiveProperties;
+
+    @Resource
+    private ThreadPoolTaskExecutor archiveExecutor;
+
+    // 每天凌晨执行，把软删除超过保留时间的记录移到归档表；在归档线程池中执行，不阻塞其他定时任务
+    @Scheduled(cron = "${zhiyin.archive.cron:0 30 3 * * *}")
+    public void doArchive() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        try {
+            archiveExecutor.execute(this::archiveWithLock);
+        } catch (TaskRejectedException e) {
+            log.warn("上一轮归档仍在执行, 跳过本轮");
+        }
+    }
+
+    private void archiveWithLock() {
+        RLock lock = redissonClient.getLock("zhiyin:archivejob:doarchive:lock");
+        try {
+            // 不指定租期，由看门狗在执行期间自动续期
+            if (lock.tryLock(0, -1, TimeUnit.MILLISECONDS)) {
+                archiveService.archiveDeletedRows();
+            }
+        } catch (Exception e) {
+            log.error("doArchive error", e);
+        } finally {
+            // 只能释放自己的锁
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.lcj.zhiyin.job;
+
+import com.lcj.zhiyin.config.CacheWarmProperties;
+import com.lcj.zhiyin.job.warm.CacheWarmer;
+import com.lcj.zhiyin.service.UserService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存预热任务
+ * <p>
+ * 热点用户 = 配置的重点用户 + 最近活跃用户，各预热器拆分出的任务在有界线程池中并行执行。
+ * 任务通过 TwoLevelCache 或 TeamService 写入缓存，写入时会通知其他节点清除本地缓存。
+ */
+@Component
+@Slf4j
+public class CacheWarmJob {
+
+    /**
+     * 每完成多少个任务打印一次进度
+     */
+    private static final int PROGRESS_STEP = 20;
+
+    @Resource
+    private List<CacheWarmer> cacheWarmers;
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private ThreadPoolTaskExecutor cacheWarmExecutor;
+
+    @Resource
+    private CacheWarmProperties cacheWarmProperties;
+
+    // 每 5 分钟执行，预热推荐用户、匹配结果和队伍列表
+    @Scheduled(cron = "${zhiyin.warm.cron:0 0/5 * * * *}")
+    public void doWarmCache() {
+        if (!cacheWarmProperties.isEnabled()) {
+            return;
+        }
+        RLock lock = redissonClient.getLock("zhiyin:cachewarmjob:dowarm:lock");
+        try {
+            // 不指定租期，由看门狗在执行期间自动续期，预热耗时再长也不会被其他节点重复执行
+            if (lock.tryLock(0, -1, TimeUnit.MILLISECONDS)) {
+                warmAll();
+            }
+        } catch (InterruptedException e) {
+            log.error("doWarmCache error", e);
+        } finally {
+            // 只能释放自己的锁
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void warmAll() {
+        long start = System.currentTimeMillis();
+        List<Long> hotUserIds = resolveHotUserIds();
+
+        // 先拆分出全部任务，便于统计进度
+        Map<CacheWarmer, List<Runnable>> planMap = new LinkedHashMap<>();
+        for (CacheWarmer cacheWarmer : cacheWarmers) {
+            if (cacheWarmProperties.getDisabledWarmers().contains(cacheWarmer.getName())) {
+                continue;
+            }
+            try {
+                planMap.put(cacheWarmer, cacheWarmer.plan(hotUserIds));
+            } catch (Exception e) {
+                log.error("预热器 {} 拆分任务失败", cacheWarmer.getName(), e);
+            }
+        }
+        int total = planMap.values().stream().mapToInt(List::size).sum();
+
+        AtomicInteger finished = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        Map<String, WarmStats> statsMap = new LinkedHashMap<>();
+        planMap.forEach((cacheWarmer, tasks) -> {
+            WarmStats stats = new WarmStats(tasks.size());
+            statsMap.put(cacheWarmer.getName(), stats);
+            for (Runnable task : tasks) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    long taskStart = System.currentTimeMillis();
+                    try {
+                        task.run();
+                        stats.succeeded.incrementAndGet();
+                    } catch (Exception e) {
+                        stats.failed.incrementAndGet();
+                        log.error("预热器 {} 任务执行失败", cacheWarmer.getName(), e);
+                    } finally {
+                        stats.costMillis.addAndGet(System.currentTimeMillis() - taskStart);
+                        int done = finished.incrementAndGet();
+                        if (done % PROGRESS_STEP == 0 || done == total) {
+                            log.info("缓存预热进度 => {}/{}", done, total);
+                        }
+                    }
+                }, cacheWarmExecutor));
+            }
+        });
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        statsMap.forEach((name, stats) -> log.info("预热器 {} 完成, 任务数 => {}, 成功 => {}, 失败 => {}, 任务累计耗时 => {}ms",
+                name, stats.tasks, stats.succeeded.get(), stats.failed.get(), stats.costMillis.get()));
+        log.info("缓存预热完成, 热点用户数 => {}, 任务数 => {}, 耗时 => {}ms",
+                hotUserIds.size(), total, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 配置的重点用户 + 最近活跃用户
+     */
+    private List<Long> resolveHotUserIds() {
+        Set<Long> hotUserIds = new LinkedHashSet<>(cacheWarmProperties.getHotUserIds());
+        try {
+            hotUserIds.addAll(userService.listActiveUserIds(
+                    cacheWarmProperties.getActiveWindow(), cacheWarmProperties.getActiveUserLimit()));
+        } catch (Exception e) {
+            log.error("获取活跃用户失败, 只预热配置的重点用户", e);
+        }
+        return new ArrayList<>(hotUserIds);
+    }
+
+    private static class WarmStats {
+
+        private final int tasks;
+
+        private final AtomicInteger succeeded = new AtomicInteger();
+
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private final AtomicLong costMillis = new AtomicLong();
+
+        WarmStats(int tasks) {
+            this.tasks = tasks;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.lcj.zhiyin.job;
+
+import com.lcj.zhiyin.service.TeamService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 过期队伍清理任务
+ */
+@Component
+@Slf4j
+public class TeamExpireJob {
+
+    private static final int BATCH_SIZE = 100;
+
+    // 单次执行最多处理的批次，避免积压时长时间占用数据库
+    private static final int MAX_BATCHES = 20;
+
+    @Resource
+    private TeamService teamService;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    // 每分钟执行，只处理过期索引（Redis 有序集合）中已到期的队伍
+    @Scheduled(fixedDelay = 60_000)
+    public void doSweepExpiredTeams() {
+        RLock lock = redissonClient.getLock("zhiyin:team:expire:sweep:lock");
+        try {
+            // 只有一个线程能获取到锁
+            if (lock.tryLock(0, 60, TimeUnit.SECONDS)) {
+                int removed = 0;
+                for (int i = 0; i < MAX_BATCHES; i++) {
+                    List<Long> dueTeamIds = teamService.listDueExpiredTeamIds(BATCH_SIZE);
+                    if (dueTeamIds.isEmpty()) {
+                        break;
+                    }
+                    removed += teamService.removeExpiredTeams(dueTeamIds);
+                }
+                if (removed > 0) {
+                    log.info("清理过期队伍 => {}", removed);
+                }
+            }
+        } catch (InterruptedException e) {
+            log.error("doSweepExpiredTeams error", e);
+        } finally {
+            // 只能释放自己的锁
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 每天执行，补偿未进入过期索引的队伍（历史数据、Redis 数据丢失）
+    @Scheduled(cron = "0 20 3 * * *")
+    public void doSweepMissedExpiredTeams() {
+        RLock lock = redissonClient.getLock("zhiyin:team:expire:sweep:lock");
+        try {
+            if (lock.tryLock(0, 10, TimeUnit.MINUTES)) {
+                long afterId = 0;
+                int removed = 0;
+                while (true) {
+                    List<Long> expiredTeamIds = teamService.listExpiredTeamIdsFromDb(afterId, BATCH_SIZE);
+                    if (expiredTeamIds.isEmpty()) {
+                        break;
+                    }
+                    removed += teamService.removeExpiredTeams(expiredTeamIds);
+                    afterId = expiredTeamIds.get(expiredTeamIds.size() - 1);
+                }
+                log.info("补偿清理过期队伍 => {}", removed);
+            }
+        } catch (InterruptedException e) {
+            log.error("doSweepMissedExpiredTeams error", e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.lcj.zhiyin.job;
+
+import com.lcj.zhiyin.service.TeamJoinQueueService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排队加入队伍消费任务
+ */
+@Component
+@Slf4j
+public class TeamJoinQueueJob {
+
+    @Resource
+    private TeamJoinQueueService teamJoinQueueService;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    // 持续消费排队中的加入请求，每个队伍同一时刻只有一个消费者
+    @Scheduled(fixedDelay = 200)
+    public void doConsumeJoinQueue() {
+        for (Long teamId : teamJoinQueueService.listQueuedTeamIds()) {
+            RLock lock = redissonClient.getLock("zhiyin:team:join:consumer:lock:" + teamId);
+            try {
+                // 不指定租期，由看门狗在执行期间自动续期，避免处理中途锁过期被其他节点并发消费
+                if (lock.tryLock(0, -1, TimeUnit.MILLISECONDS)) {
+                    teamJoinQueueService.processQueue(teamId);
+                }
+            } catch (InterruptedException e) {
+                log.error("doConsumeJoinQueue error", e);
+            } catch (Exception e) {
+                // 消息未删除，下次继续处理
+                log.error("处理队伍 {} 的排队请求失败", teamId, e);
+            } finally {
+                // 只能释放自己的锁
+                if (lock.isHeldByCurrentThread()) {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.lcj.zhiyin.job;
+
+import com.lcj.zhiyin.mapper.TeamMapper;
+import com.lcj.zhiyin.service.TeamService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 队伍成员数校正任务
+ */
+@Component
+@Slf4j
+public class TeamMemberCountJob {
+
+    /**
+     * 每批查询的队伍数，每个队伍在各自的短事务中校正
+     */
+    private static final int BATCH_SIZE = 100;
+
+    @Resource
+    private TeamMapper teamMapper;
+
+    @Resource
+    private TeamService teamService;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    // 每小时执行，按 user_team 实际记录修正 team.member_count 的漂移
+    @Scheduled(cron = "0 7 * * * *")
+    public void doReconcileMemberCount() {
+        RLock lock = redissonClient.getLock("zhiyin:team:member_count:reconcile:lock");
+        try {
+            // 不指定租期，由看门狗在执行期间自动续期
+            if (lock.tryLock(0, -1, TimeUnit.MILLISECONDS)) {
+                int fixed = reconcileAll();
+                if (fixed > 0) {
+                    log.warn("队伍成员数已校正, 修正队伍数 => {}", fixed);
+                }
+            }
+        } catch (Exception e) {
+            log.error("doReconcileMemberCount error", e);
+        } finally {
+            // 只能释放自己的锁
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int reconcileAll() {
+        int fixed = 0;
+        long lastId = 0;
+        List<Long> teamIdList;
+        do {
+            teamIdList = teamMapper.selectTeamIdsAfter(lastId, BATCH_SIZE);
+            for (Long teamId : teamIdList) {
+                if (teamService.reconcileMemberCount(teamId)) {
+                    fixed++;
+                }
+            }
+            if (!teamIdList.isEmpty()) {
+                lastId = teamIdList.get(teamIdList.size() - 1);
+            }
+        } while (teamIdList.size() == BATCH_SIZE);
+        return fixed;
+    }
+
+}
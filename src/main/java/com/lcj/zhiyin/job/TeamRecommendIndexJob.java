@@ -0,0 +1,37 @@
+package com.lcj.zhiyin.job;
+
+import com.lcj.zhiyin.service.TeamRecommendService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 队伍推荐索引重建任务（索引在每个节点的内存中，各节点各自重建，无需加锁）
+ */
+@Component
+@Slf4j
+public class TeamRecommendIndexJob {
+
+    @Resource
+    private TeamRecommendService teamRecommendService;
+
+    // 启动后立即构建一次
+    @EventListener(ApplicationReadyEvent.class)
+    public void initIndex() {
+        doRebuildIndex();
+    }
+
+    // 每 10 分钟全量重建，修正增量维护遗漏的变更（用户修改标签、队伍过期等）
+    @Scheduled(fixedDelay = 10 * 60 * 1000, initialDelay = 10 * 60 * 1000)
+    public void doRebuildIndex() {
+        try {
+            teamRecommendService.rebuild();
+        } catch (Exception e) {
+            log.error("doRebuildIndex error", e);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.lcj.zhiyin.job;
+
+import com.lcj.zhiyin.config.UserFeedProperties;
+import com.lcj.zhiyin.service.UserFeedService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户推荐流生成任务
+ */
+@Component
+@Slf4j
+public class UserFeedJob {
+
+    @Resource
+    private UserFeedService userFeedService;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private UserFeedProperties userFeedProperties;
+
+    // 每小时执行，为活跃用户重新生成推荐流
+    @Scheduled(cron = "${zhiyin.feed.cron:0 20 * * * *}")
+    public void doBuildFeeds() {
+        if (!userFeedProperties.isEnabled()) {
+            return;
+        }
+        RLock lock = redissonClient.getLock("zhiyin:userfeedjob:dobuild:lock");
+        try {
+            // 不指定租期，由看门狗在执行期间自动续期
+            if (lock.tryLock(0, -1, TimeUnit.MILLISECONDS)) {
+                userFeedService.rebuildFeeds();
+            }
+        } catch (Exception e) {
+            log.error("doBuildFeeds error", e);
+        } finally {
+            // 只能释放自己的锁
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+}
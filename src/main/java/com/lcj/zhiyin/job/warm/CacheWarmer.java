@@ -0,0 +1,20 @@
+package com.lcj.zhiyin.job.warm;
+
+import java.util.List;
+
+/**
+ * 缓存预热器，新增预热内容时实现该接口并注册为 Bean 即可
+ */
+public interface CacheWarmer {
+
+    /**
+     * 预热器名称（日志和 zhiyin.warm.disabled-warmers 使用）
+     */
+    String getName();
+
+    /**
+     * 拆分本轮预热任务，任务之间并行执行
+     * 任务自行通过缓存写入结果，保证其他节点的本地缓存同时失效
+     */
+    List<Runnable> plan(List<Long> hotUserIds);
+}
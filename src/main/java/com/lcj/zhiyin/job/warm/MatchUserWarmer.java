@@ -0,0 +1,53 @@
+package com.lcj.zhiyin.job.warm;
+
+import com.lcj.zhiyin.cache.TwoLevelCache;
+import com.lcj.zhiyin.cache.TwoLevelCacheManager;
+import com.lcj.zhiyin.config.CacheWarmProperties;
+import com.lcj.zhiyin.datasource.DataSourceContextHolder;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.service.UserService;
+import jakarta.annotation.Resource;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 匹配用户预热：为每个热点用户计算一次标签匹配结果
+ */
+@Component
+public class MatchUserWarmer implements CacheWarmer {
+
+    private static final String CACHE_NAME = "match_users";
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private TwoLevelCacheManager cacheManager;
+
+    @Resource
+    private CacheWarmProperties cacheWarmProperties;
+
+    @Override
+    public String getName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public List<Runnable> plan(List<Long> hotUserIds) {
+        TwoLevelCache cache = cacheManager.getTwoLevelCache(CACHE_NAME);
+        long num = cacheWarmProperties.getMatchNum();
+        // 没有标签的用户无法匹配，不预热
+        return userService.getUsersByIds(new HashSet<>(hotUserIds)).values().stream()
+                .filter(user -> CollectionUtils.isNotEmpty(user.getTags()))
+                .map(user -> (Runnable) () -> {
+                    List<User> matchUsers = DataSourceContextHolder.callOnPrimary(() -> userService.computeMatchUsers(num, user));
+                    // 与 UserService.matchUsers 的缓存 key 保持一致，通过缓存写入以通知其他节点清除本地缓存
+                    cache.put(user.getId() + "-" + num, matchUsers);
+                })
+                .collect(Collectors.toList());
+    }
+}
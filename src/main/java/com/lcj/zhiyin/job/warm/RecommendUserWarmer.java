@@ -0,0 +1,63 @@
+package com.lcj.zhiyin.job.warm;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.lcj.zhiyin.cache.TwoLevelCache;
+import com.lcj.zhiyin.cache.TwoLevelCacheManager;
+import com.lcj.zhiyin.config.CacheWarmProperties;
+import com.lcj.zhiyin.datasource.DataSourceContextHolder;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 推荐用户预热：推荐列表与用户无关，只预热前几页；同时为推荐缓存注册后台刷新加载器
+ */
+@Component
+public class RecommendUserWarmer implements CacheWarmer {
+
+    private static final String CACHE_NAME = "recommend_users";
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private TwoLevelCacheManager cacheManager;
+
+    @Resource
+    private CacheWarmProperties cacheWarmProperties;
+
+    /**
+     * 缓存 key 为 pageNum-pageSize，软过期后在后台按 key 重新查询
+     */
+    @PostConstruct
+    public void registerRefreshLoader() {
+        cacheManager.registerRefreshLoader(CACHE_NAME, key -> {
+            String[] parts = String.valueOf(key).split("-");
+            return userService.pageSafetyUsers(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        });
+    }
+
+    @Override
+    public String getName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public List<Runnable> plan(List<Long> hotUserIds) {
+        TwoLevelCache cache = cacheManager.getTwoLevelCache(CACHE_NAME);
+        int pageSize = cacheWarmProperties.getRecommendPageSize();
+        return IntStream.rangeClosed(1, cacheWarmProperties.getRecommendPages())
+                .mapToObj(pageNum -> (Runnable) () -> {
+                    Page<User> userPage = DataSourceContextHolder.callOnPrimary(() -> userService.pageSafetyUsers(pageNum, pageSize));
+                    // 与 UserService.recommendUsers 的缓存 key 保持一致，通过缓存写入以通知其他节点清除本地缓存
+                    cache.put(pageNum + "-" + pageSize, userPage);
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,42 @@
+package com.lcj.zhiyin.job.warm;
+
+import com.lcj.zhiyin.config.CacheWarmProperties;
+import com.lcj.zhiyin.model.dto.TeamQuery;
+import com.lcj.zhiyin.service.TeamService;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 队伍列表预热：默认查询条件（公开队伍）的前几页
+ * 队伍列表缓存 key 带数据版本号，由 TeamService 计算并写入
+ */
+@Component
+public class TeamListWarmer implements CacheWarmer {
+
+    @Resource
+    private TeamService teamService;
+
+    @Resource
+    private CacheWarmProperties cacheWarmProperties;
+
+    @Override
+    public String getName() {
+        return "team_list";
+    }
+
+    @Override
+    public List<Runnable> plan(List<Long> hotUserIds) {
+        return IntStream.rangeClosed(1, cacheWarmProperties.getTeamListPages())
+                .mapToObj(pageNum -> (Runnable) () -> {
+                    TeamQuery teamQuery = new TeamQuery();
+                    teamQuery.setPageNum(pageNum);
+                    teamQuery.setPageSize(cacheWarmProperties.getTeamListPageSize());
+                    teamService.refreshTeamListCache(teamQuery);
+                })
+                .collect(Collectors.toList());
+    }
+}
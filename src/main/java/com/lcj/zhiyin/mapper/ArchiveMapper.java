@@ -0,0 +1,55 @@
+package com.lcj.zhiyin.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 软删除数据归档 Mapper
+ * <p>
+ * table 只能传入固定的表名常量（user / team / user_team），归档表为 {table}_archive，结构与原表一致：
+ * <pre>
+ * CREATE TABLE user_archive LIKE `user`;
+ * CREATE TABLE team_archive LIKE team;
+ * CREATE TABLE user_team_archive LIKE user_team;
+ * </pre>
+ * 建表后需要删除归档表上的唯一索引（如 user_account、(user_id, team_id)），同一账号或成员关系可能被多次归档。
+ */
+public interface ArchiveMapper {
+
+    /**
+     * 按主键顺序查找可归档的 id，从 lastId 之后继续扫描
+     */
+    @Select("SELECT id FROM `${table}` WHERE id > #{lastId} AND is_delete = 1 AND update_time < #{before} " +
+            "ORDER BY id LIMIT #{limit}")
+    List<Long> selectArchivableIds(@Param("table") String table, @Param("lastId") long lastId,
+                                   @Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * 在事务内锁定仍满足归档条件的记录，避免与恢复操作（如重新加入队伍）并发
+     */
+    @Select({"<script>",
+            "SELECT id FROM `${table}` WHERE is_delete = 1 AND update_time &lt; #{before} AND id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "FOR UPDATE",
+            "</script>"})
+    List<Long> lockArchivableIds(@Param("table") String table, @Param("ids") Collection<Long> ids,
+                                 @Param("before") LocalDateTime before);
+
+    @Insert({"<script>",
+            "INSERT INTO `${table}_archive` SELECT * FROM `${table}` WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int copyToArchive(@Param("table") String table, @Param("ids") Collection<Long> ids);
+
+    @Delete({"<script>",
+            "DELETE FROM `${table}` WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int deleteByIds(@Param("table") String table, @Param("ids") Collection<Long> ids);
+}
@@ -1,15 +1,125 @@
 package com.lcj.zhiyin.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.lcj.zhiyin.model.domain.Team;
-import org.apache.ibatis.annotations.Mapper;
+import com.lcj.zhiyin.model.dto.TeamQuery;
+import com.lcj.zhiyin.model.vo.TeamUserVO;
+import com.lcj.zhiyin.utils.TagListTypeHandler;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.util.List;
 
 /**
  * 队伍 Mapper
  */
 public interface TeamMapper extends BaseMapper<Team> {
-}
 
+    /**
+     * 全文检索队伍并按相关度排序（依赖 name, description 上的 ngram FULLTEXT 索引）
+     * 自定义 SQL 不会自动追加逻辑删除条件，需由 queryWrapper 提供
+     */
+    @Select("SELECT *, MATCH(name, description) AGAINST(#{keyword} IN NATURAL LANGUAGE MODE) AS score " +
+            "FROM team ${ew.customSqlSegment} ORDER BY score DESC, id DESC")
+    Page<Team> selectPageByRelevance(Page<Team> page, @Param("keyword") String keyword,
+                                     @Param(Constants.WRAPPER) Wrapper<Team> queryWrapper);
+
+    /**
+     * 分页查询用户加入的队伍，一条 SQL 关联出创建者（脱敏字段）和成员数
+     * 筛选条件与队伍列表一致，关键词过短（fullText 为 false）时改用 LIKE 匹配
+     */
+    @Select({"<script>",
+            "SELECT t.id, t.name, t.description, t.max_num, t.expire_time, t.user_id, t.status,",
+            "t.create_time, t.update_time, t.member_count,",
+            "u.id AS creator_id, u.username AS creator_username, u.user_account AS creator_user_account,",
+            "u.gender AS creator_gender, u.phone AS creator_phone, u.email AS creator_email, u.tags AS creator_tags,",
+            "u.user_status AS creator_user_status, u.user_role AS creator_user_role",
+            "FROM user_team ut",
+            "JOIN team t ON t.id = ut.team_id AND t.is_delete = 0",
+            "LEFT JOIN `user` u ON u.id = t.user_id AND u.is_delete = 0",
+            "WHERE ut.user_id = #{userId} AND ut.is_delete = 0",
+            "<if test='query.id != null'>AND t.id = #{query.id}</if>",
+            "<if test='query.searchText != null and query.searchText.trim() != \"\"'>",
+            "  <choose>",
+            "    <when test='fullText'>AND MATCH(t.name, t.description) AGAINST(#{query.searchText} IN NATURAL LANGUAGE MODE)</when>",
+            "    <otherwise>AND (t.name LIKE CONCAT('%', #{query.searchText}, '%') OR t.description LIKE CONCAT('%', #{query.searchText}, '%'))</otherwise>",
+            "  </choose>",
+            "</if>",
+            "<if test='query.name != null and query.name.trim() != \"\"'>AND t.name LIKE CONCAT('%', #{query.name}, '%')</if>",
+            "<if test='query.description != null and query.description.trim() != \"\"'>AND t.description LIKE CONCAT('%', #{query.description}, '%')</if>",
+            "<if test='query.maxNum != null and query.maxNum > 0'>AND t.max_num = #{query.maxNum}</if>",
+            "<if test='query.userId != null and query.userId > 0'>AND t.user_id = #{query.userId}</if>",
+            "<if test='query.status != null'>AND t.status = #{query.status}</if>",
+            "ORDER BY ut.join_time DESC, t.id DESC",
+            "</script>"})
+    @Results(id = "teamUserVOMap", value = {
+            @Result(column = "id", property = "id", id = true),
+            @Result(column = "name", property = "name"),
+            @Result(column = "description", property = "description"),
+            @Result(column = "max_num", property = "maxNum"),
+            @Result(column = "expire_time", property = "expireTime"),
+            @Result(column = "user_id", property = "userId"),
+            @Result(column = "status", property = "status"),
+            @Result(column = "create_time", property = "createTime"),
+            @Result(column = "update_time", property = "updateTime"),
+            @Result(column = "member_count", property = "hasJoinNum"),
+            @Result(column = "creator_id", property = "createUser.id"),
+            @Result(column = "creator_username", property = "createUser.username"),
+            @Result(column = "creator_user_account", property = "createUser.userAccount"),
+            @Result(column = "creator_gender", property = "createUser.gender"),
+            @Result(column = "creator_phone", property = "createUser.phone"),
+            @Result(column = "creator_email", property = "createUser.email"),
+            @Result(column = "creator_tags", property = "createUser.tags", typeHandler = TagListTypeHandler.class),
+            @Result(column = "creator_user_status", property = "createUser.userStatus"),
+            @Result(column = "creator_user_role", property = "createUser.userRole")
+    })
+    Page<TeamUserVO> selectJoinedTeamPage(Page<TeamUserVO> page, @Param("userId") long userId,
+                                          @Param("query") TeamQuery teamQuery, @Param("fullText") boolean fullText);
+
+    /**
+     * 队伍剩余名额足够时成员数 + delta，返回 0 表示队伍已满或不存在
+     */
+    @Update("UPDATE team SET member_count = member_count + #{delta} " +
+            "WHERE id = #{teamId} AND is_delete = 0 AND member_count + #{delta} <= max_num")
+    int increaseMemberCount(@Param("teamId") long teamId, @Param("delta") int delta);
 
+    /**
+     * 成员数 - 1
+     */
+    @Update("UPDATE team SET member_count = member_count - 1 WHERE id = #{teamId} AND member_count > 0")
+    int decreaseMemberCount(@Param("teamId") long teamId);
 
+    /**
+     * 按 id 顺序获取未删除的队伍 id（成员数校正分批使用）
+     */
+    @Select("SELECT id FROM team WHERE id > #{afterId} AND is_delete = 0 ORDER BY id LIMIT #{limit}")
+    List<Long> selectTeamIdsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
 
+    /**
+     * 锁定队伍行，与加入、退出队伍对成员数的更新串行执行
+     */
+    @Select("SELECT id FROM team WHERE id = #{teamId} AND is_delete = 0 FOR UPDATE")
+    Long lockTeam(@Param("teamId") long teamId);
+
+    /**
+     * 按 user_team 中的实际记录校正单个队伍的成员数，需先锁定队伍行，返回 1 表示已修正
+     */
+    @Update("UPDATE team SET member_count = " +
+            "(SELECT COUNT(*) FROM user_team WHERE team_id = #{teamId} AND is_delete = 0) " +
+            "WHERE id = #{teamId} AND member_count <> " +
+            "(SELECT COUNT(*) FROM user_team WHERE team_id = #{teamId} AND is_delete = 0)")
+    int reconcileMemberCount(@Param("teamId") long teamId);
+
+    /**
+     * 按 id 顺序流式读取全部队伍（导出使用，不读取队伍密码）
+     * fetchSize = Integer.MIN_VALUE 时 MySQL 驱动逐行读取结果，需要在事务内遍历并关闭游标
+     */
+    @Select("SELECT id, name, description, max_num, member_count, expire_time, user_id, status, create_time " +
+            "FROM team WHERE is_delete = 0 ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Team> streamExportTeams();
+}
@@ -3,8 +3,12 @@ package com.lcj.zhiyin.mapper;
 
 import com.lcj.zhiyin.model.domain.User;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
-import org.apache.ibatis.annotations.Param;
+import com.lcj.zhiyin.utils.TagListTypeHandler;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,9 +16,85 @@ import java.util.List;
  */
 public interface UserMapper extends BaseMapper<User> {
 
-//    List<User> searchUsersByTags(@Param("tagNameList") List<String> tagNameList);
-}
+    /**
+     * 公开资料投影：脱敏用户的字段 + 头像，不读取密码、时间和删除标记
+     */
+    String PUBLIC_PROFILE_COLUMNS = "id, username, user_account, avatar_url, gender, phone, email, tags, user_status, user_role";
+
+    /**
+     * 认证投影：公开资料 + 密码（登录校验和登录响应使用）
+     */
+    String AUTH_COLUMNS = PUBLIC_PROFILE_COLUMNS + ", user_password";
+
+    /**
+     * 导出投影：公开资料 + 创建时间
+     */
+    String EXPORT_COLUMNS = PUBLIC_PROFILE_COLUMNS + ", create_time";
+
+    /**
+     * 按 id 批量查询公开资料
+     */
+    @Select({"<script>",
+            "SELECT " + PUBLIC_PROFILE_COLUMNS + " FROM `user`",
+            "WHERE is_delete = 0 AND id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    @Results(id = "userProjectionMap", value = {
+            @Result(column = "tags", property = "tags", typeHandler = TagListTypeHandler.class)
+    })
+    @Options(timeout = UserTeamMapper.LOOKUP_TIMEOUT_SECONDS)
+    List<User> selectPublicProfilesByIds(@Param("ids") Collection<Long> ids);
 
+    /**
+     * 过滤出仍存在（未删除）的用户 id，只走主键索引
+     */
+    @Select({"<script>",
+            "SELECT id FROM `user` WHERE is_delete = 0 AND id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    @Options(timeout = UserTeamMapper.LOOKUP_TIMEOUT_SECONDS)
+    List<Long> selectExistingIds(@Param("ids") Collection<Long> ids);
 
+    /**
+     * 按账号查询公开资料
+     */
+    @Select("SELECT " + PUBLIC_PROFILE_COLUMNS + " FROM `user` WHERE user_account = #{userAccount} AND is_delete = 0")
+    @ResultMap("userProjectionMap")
+    @Options(timeout = UserTeamMapper.LOOKUP_TIMEOUT_SECONDS)
+    User selectPublicProfileByUserAccount(@Param("userAccount") String userAccount);
 
+    /**
+     * 按账号查询认证信息
+     */
+    @Select("SELECT " + AUTH_COLUMNS + " FROM `user` WHERE user_account = #{userAccount} AND is_delete = 0")
+    @ResultMap("userProjectionMap")
+    User selectAuthByUserAccount(@Param("userAccount") String userAccount);
 
+    /**
+     * 锁定用户行，同一用户的加入队伍操作在事务内串行执行（按 id 顺序加锁避免死锁）
+     */
+    @Select({"<script>",
+            "SELECT id FROM `user` WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "ORDER BY id FOR UPDATE",
+            "</script>"})
+    List<Long> lockUsers(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 查询已存在的账号（包括已逻辑删除的，避免插入时违反唯一索引）
+     */
+    @Select({"<script>",
+            "SELECT user_account FROM `user` WHERE user_account IN",
+            "<foreach collection='accounts' item='account' open='(' separator=',' close=')'>#{account}</foreach>",
+            "</script>"})
+    List<String> selectExistingAccounts(@Param("accounts") Collection<String> accounts);
+
+    /**
+     * 按 id 顺序流式读取全部用户（导出使用）
+     * fetchSize = Integer.MIN_VALUE 时 MySQL 驱动逐行读取结果，需要在事务内遍历并关闭游标
+     */
+    @Select("SELECT " + EXPORT_COLUMNS + " FROM `user` WHERE is_delete = 0 ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultMap("userProjectionMap")
+    Cursor<User> streamExportUsers();
+}
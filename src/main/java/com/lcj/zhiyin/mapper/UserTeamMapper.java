@@ -2,12 +2,121 @@ package com.lcj.zhiyin.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.lcj.zhiyin.model.domain.UserTeam;
+import com.lcj.zhiyin.model.dto.TeamJoinCountDTO;
+import com.lcj.zhiyin.model.dto.TeamMemberTagDTO;
+import com.lcj.zhiyin.model.vo.TeamMemberVO;
+import com.lcj.zhiyin.utils.TagListTypeHandler;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 用户队伍 Mapper
  */
 public interface UserTeamMapper extends BaseMapper<UserTeam> {
 
+    /**
+     * 队伍列表并发补充查询的语句超时（秒），超时后由驱动取消查询并释放连接
+     */
+    int LOOKUP_TIMEOUT_SECONDS = 3;
+
+    /**
+     * 按队伍统计加入人数（GROUP BY 在数据库完成，只返回 teamId -> 人数）
+     */
+    @Select({"<script>",
+            "SELECT team_id AS teamId, COUNT(*) AS joinCount FROM user_team",
+            "WHERE is_delete = 0 AND team_id IN",
+            "<foreach collection='teamIds' item='teamId' open='(' separator=',' close=')'>#{teamId}</foreach>",
+            "GROUP BY team_id",
+            "</script>"})
+    @Options(timeout = LOOKUP_TIMEOUT_SECONDS)
+    List<TeamJoinCountDTO> countByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+
+    /**
+     * 一次查询多个队伍的成员预览：每个队伍按加入时间取前 limit 个成员
+     */
+    @Select({"<script>",
+            "SELECT teamId, userId, username, avatarUrl, joinTime FROM (",
+            "SELECT ut.team_id AS teamId, ut.user_id AS userId, u.username AS username,",
+            "u.avatar_url AS avatarUrl, ut.join_time AS joinTime,",
+            "ROW_NUMBER() OVER (PARTITION BY ut.team_id ORDER BY ut.join_time, ut.id) AS rn",
+            "FROM user_team ut JOIN `user` u ON u.id = ut.user_id AND u.is_delete = 0",
+            "WHERE ut.is_delete = 0 AND ut.team_id IN",
+            "<foreach collection='teamIds' item='teamId' open='(' separator=',' close=')'>#{teamId}</foreach>",
+            ") m WHERE m.rn &lt;= #{limit}",
+            "ORDER BY teamId, rn",
+            "</script>"})
+    @Options(timeout = LOOKUP_TIMEOUT_SECONDS)
+    List<TeamMemberVO> selectMemberPreviews(@Param("teamIds") Collection<Long> teamIds, @Param("limit") int limit);
+
+    /**
+     * 查询队伍成员的标签，teamIds 为空时返回全部队伍
+     */
+    @Select({"<script>",
+            "SELECT ut.team_id, u.tags FROM user_team ut",
+            "JOIN `user` u ON u.id = ut.user_id AND u.is_delete = 0",
+            "WHERE ut.is_delete = 0",
+            "<if test='teamIds != null and teamIds.size() > 0'>",
+            "AND ut.team_id IN",
+            "<foreach collection='teamIds' item='teamId' open='(' separator=',' close=')'>#{teamId}</foreach>",
+            "</if>",
+            "</script>"})
+    @Results({
+            @Result(column = "team_id", property = "teamId"),
+            @Result(column = "tags", property = "tags", typeHandler = TagListTypeHandler.class)
+    })
+    List<TeamMemberTagDTO> selectMemberTags(@Param("teamIds") Collection<Long> teamIds);
+
+    /**
+     * 查询用户加入的队伍 id（只投影 team_id），teamIds 为空时返回全部
+     */
+    @Select({"<script>",
+            "SELECT team_id FROM user_team WHERE is_delete = 0 AND user_id = #{userId}",
+            "<if test='teamIds != null and teamIds.size() > 0'>",
+            "AND team_id IN",
+            "<foreach collection='teamIds' item='teamId' open='(' separator=',' close=')'>#{teamId}</foreach>",
+            "</if>",
+            "</script>"})
+    @Options(timeout = LOOKUP_TIMEOUT_SECONDS)
+    List<Long> selectJoinedTeamIds(@Param("userId") long userId, @Param("teamIds") Collection<Long> teamIds);
+
+    /**
+     * 查询除指定用户外最早加入的成员，队长退出时在事务内确定新队长（加入时间为空的旧数据按创建时间）
+     */
+    @Select("SELECT user_id FROM user_team WHERE team_id = #{teamId} AND is_delete = 0 AND user_id <> #{excludeUserId} " +
+            "ORDER BY COALESCE(join_time, create_time), id LIMIT 1")
+    Long selectNextLeaderId(@Param("teamId") long teamId, @Param("excludeUserId") long excludeUserId);
+
+    /**
+     * 查询在该队伍中已被软删除（曾加入后退出）的用户
+     */
+    @Select({"<script>",
+            "SELECT user_id FROM user_team WHERE team_id = #{teamId} AND is_delete = 1 AND user_id IN",
+            "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>",
+            "</script>"})
+    List<Long> selectDeletedMemberIds(@Param("teamId") long teamId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 查询该队伍中仍存在记录的用户（包括已软删除的），用于判断旧记录是否已被归档任务物理删除
+     */
+    @Select({"<script>",
+            "SELECT user_id FROM user_team WHERE team_id = #{teamId} AND user_id IN",
+            "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>",
+            "</script>"})
+    List<Long> selectExistingMemberIds(@Param("teamId") long teamId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 恢复已软删除的成员关系（(user_id, team_id) 唯一，重新加入时复用旧记录）
+     */
+    @Update({"<script>",
+            "UPDATE user_team SET is_delete = 0, join_time = #{joinTime}",
+            "WHERE team_id = #{teamId} AND is_delete = 1 AND user_id IN",
+            "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>",
+            "</script>"})
+    int restoreMembers(@Param("teamId") long teamId, @Param("userIds") Collection<Long> userIds,
+                       @Param("joinTime") LocalDateTime joinTime);
 }
 
 
@@ -0,0 +1,89 @@
+package com.lcj.zhiyin.model.converter;
+
+import com.lcj.zhiyin.model.domain.Team;
+import com.lcj.zhiyin.model.request.TeamCreateRequest;
+import com.lcj.zhiyin.model.request.TeamUpdateRequest;
+import com.lcj.zhiyin.model.vo.TeamUserVO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * 队伍对象转换（逐字段赋值，不使用反射）
+ */
+public class TeamConverter {
+
+    /**
+     * 创建请求 -> 队伍，未指定过期时间时使用实体的默认值
+     */
+    public static Team toTeam(TeamCreateRequest request) {
+        Team team = new Team();
+        team.setName(request.getName());
+        team.setDescription(request.getDescription());
+        team.setMaxNum(request.getMaxNum());
+        if (request.getExpireTime() != null) {
+            team.setExpireTime(toLocalDateTime(request.getExpireTime()));
+        }
+        team.setStatus(request.getStatus());
+        team.setPassword(request.getPassword());
+        return team;
+    }
+
+    /**
+     * 修改请求 -> 队伍，未指定的字段为 null，按 id 更新时不会被修改
+     */
+    public static Team toTeam(TeamUpdateRequest request) {
+        Team team = new Team();
+        team.setId(request.getId());
+        team.setName(request.getName());
+        team.setDescription(request.getDescription());
+        team.setMaxNum(request.getMaxNum());
+        team.setExpireTime(toLocalDateTime(request.getExpireTime()));
+        team.setStatus(request.getStatus());
+        team.setPassword(request.getPassword());
+        return team;
+    }
+
+    /**
+     * 队伍 -> 队伍列表项（创建人、成员信息由调用方填充）
+     */
+    public static TeamUserVO toTeamUserVO(Team team) {
+        TeamUserVO vo = new TeamUserVO();
+        vo.setId(team.getId());
+        vo.setName(team.getName());
+        vo.setDescription(team.getDescription());
+        vo.setMaxNum(team.getMaxNum());
+        vo.setExpireTime(team.getExpireTime());
+        vo.setUserId(team.getUserId());
+        vo.setStatus(team.getStatus());
+        vo.setCreateTime(team.getCreateTime());
+        vo.setUpdateTime(team.getUpdateTime());
+        return vo;
+    }
+
+    /**
+     * 浅拷贝队伍列表项，叠加当前用户相关字段时不修改缓存中的对象
+     */
+    public static TeamUserVO copyOf(TeamUserVO source) {
+        TeamUserVO vo = new TeamUserVO();
+        vo.setId(source.getId());
+        vo.setName(source.getName());
+        vo.setDescription(source.getDescription());
+        vo.setMaxNum(source.getMaxNum());
+        vo.setExpireTime(source.getExpireTime());
+        vo.setUserId(source.getUserId());
+        vo.setStatus(source.getStatus());
+        vo.setCreateTime(source.getCreateTime());
+        vo.setUpdateTime(source.getUpdateTime());
+        vo.setCreateUser(source.getCreateUser());
+        vo.setHasJoinNum(source.getHasJoinNum());
+        vo.setMemberPreview(source.getMemberPreview());
+        vo.setHasJoin(source.isHasJoin());
+        return vo;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,29 @@
+package com.lcj.zhiyin.model.converter;
+
+import com.lcj.zhiyin.model.domain.User;
+
+/**
+ * 用户对象转换（逐字段赋值，不使用反射，每行数据都会调用）
+ */
+public class UserConverter {
+
+    /**
+     * 脱敏用户：不包含密码、头像、创建 / 修改时间和删除标记
+     */
+    public static User toSafetyUser(User user) {
+        if (user == null) {
+            return null;
+        }
+        User safetyUser = new User();
+        safetyUser.setId(user.getId());
+        safetyUser.setUsername(user.getUsername());
+        safetyUser.setUserAccount(user.getUserAccount());
+        safetyUser.setGender(user.getGender());
+        safetyUser.setPhone(user.getPhone());
+        safetyUser.setEmail(user.getEmail());
+        safetyUser.setTags(user.getTags());
+        safetyUser.setUserStatus(user.getUserStatus());
+        safetyUser.setUserRole(user.getUserRole());
+        return safetyUser;
+    }
+}
@@ -35,6 +35,11 @@ public class Team implements Serializable {
      */
     private Integer maxNum;
 
+    /**
+     * 当前成员数（加入 / 退出时原子增减，由定时任务校正）
+     */
+    private Integer memberCount;
+
     /**
      * 过期时间
      */
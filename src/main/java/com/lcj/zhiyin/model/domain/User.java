@@ -1,8 +1,7 @@
 package com.lcj.zhiyin.model.domain;
 
 import com.baomidou.mybatisplus.annotation.*;
-import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
-import com.lcj.zhiyin.utils.JsonTypeHandler;
+import com.lcj.zhiyin.utils.TagListTypeHandler;
 import lombok.Data;
 
 import java.io.Serial;
@@ -61,7 +60,7 @@ public class User implements Serializable {
     /**
      * 标签列表 json
      */
-    @TableField(value = "tags", typeHandler = JacksonTypeHandler.class)
+    @TableField(value = "tags", typeHandler = TagListTypeHandler.class)
     private List<String> tags;
 
     /**
@@ -0,0 +1,19 @@
+package com.lcj.zhiyin.model.dto;
+
+import lombok.Data;
+
+/**
+ * 队伍加入人数统计结果
+ */
+@Data
+public class TeamJoinCountDTO {
+    /**
+     * 队伍id
+     */
+    private Long teamId;
+
+    /**
+     * 加入人数
+     */
+    private Long joinCount;
+}
@@ -0,0 +1,21 @@
+package com.lcj.zhiyin.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 队伍成员标签（构建队伍标签画像使用）
+ */
+@Data
+public class TeamMemberTagDTO {
+    /**
+     * 队伍id
+     */
+    private Long teamId;
+
+    /**
+     * 成员标签列表
+     */
+    private List<String> tags;
+}
@@ -13,6 +13,9 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class TeamQuery extends PageRequest {
+
+    private static final int MAX_PREVIEW_SIZE = 10; // 限制成员预览人数
+
     /**
      * id
      */
@@ -52,4 +55,18 @@ public class TeamQuery extends PageRequest {
      * 0 - 公开，1 - 私有，2 - 加密
      */
     private Integer status;
+
+    /**
+     * 游标（游标分页时使用，为空表示第一页）
+     */
+    private String cursor;
+
+    /**
+     * 每个队伍返回的成员预览人数（0 表示不返回）
+     */
+    private int previewSize;
+
+    public void setPreviewSize(int previewSize) {
+        this.previewSize = Math.max(0, Math.min(previewSize, MAX_PREVIEW_SIZE));
+    }
 }
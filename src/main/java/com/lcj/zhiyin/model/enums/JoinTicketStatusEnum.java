@@ -0,0 +1,36 @@
+package com.lcj.zhiyin.model.enums;
+
+import lombok.Getter;
+
+/**
+ * 排队加入队伍凭证状态枚举
+ */
+@Getter
+public enum JoinTicketStatusEnum {
+
+    PENDING(0, "排队中"),
+    SUCCESS(1, "加入成功"),
+    FAILED(2, "加入失败");
+
+    private final int value;
+
+    private final String text;
+
+    public static JoinTicketStatusEnum getEnumByValue(Integer value) {
+        if (value == null) {
+            return null;
+        }
+        for (JoinTicketStatusEnum statusEnum : values()) {
+            if (statusEnum.getValue() == value) {
+                return statusEnum;
+            }
+        }
+        return null;
+    }
+
+    JoinTicketStatusEnum(int value, String text) {
+        this.value = value;
+        this.text = text;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.lcj.zhiyin.model.enums;
+
+import lombok.Getter;
+
+/**
+ * 批量导入用户任务状态枚举
+ */
+@Getter
+public enum UserImportStatusEnum {
+
+    RUNNING(0, "导入中"),
+    DONE(1, "导入完成"),
+    FAILED(2, "导入失败");
+
+    private final int value;
+
+    private final String text;
+
+    public static UserImportStatusEnum getEnumByValue(Integer value) {
+        if (value == null) {
+            return null;
+        }
+        for (UserImportStatusEnum statusEnum : values()) {
+            if (statusEnum.getValue() == value) {
+                return statusEnum;
+            }
+        }
+        return null;
+    }
+
+    UserImportStatusEnum(int value, String text) {
+        this.value = value;
+        this.text = text;
+    }
+
+}
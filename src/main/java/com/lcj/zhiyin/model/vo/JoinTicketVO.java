@@ -0,0 +1,36 @@
+package com.lcj.zhiyin.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 排队加入队伍凭证
+ */
+@Data
+public class JoinTicketVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2716396511532389547L;
+
+    /**
+     * 凭证
+     */
+    private String ticket;
+
+    /**
+     * 队伍id
+     */
+    private Long teamId;
+
+    /**
+     * 0 - 排队中，1 - 加入成功，2 - 加入失败
+     */
+    private Integer status;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
@@ -0,0 +1,42 @@
+package com.lcj.zhiyin.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 队伍成员信息封装类（脱敏）
+ */
+@Data
+public class TeamMemberVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4170275431905380318L;
+
+    /**
+     * 队伍id
+     */
+    private Long teamId;
+
+    /**
+     * 用户id
+     */
+    private Long userId;
+
+    /**
+     * 用户昵称
+     */
+    private String username;
+
+    /**
+     * 用户头像
+     */
+    private String avatarUrl;
+
+    /**
+     * 加入时间
+     */
+    private LocalDateTime joinTime;
+}
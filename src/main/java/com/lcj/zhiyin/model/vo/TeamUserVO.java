@@ -7,6 +7,7 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.List;
 
 /**
  * 队伍和用户信息封装类（脱敏）
@@ -72,6 +73,11 @@ public class TeamUserVO implements Serializable {
      */
     private Integer hasJoinNum;
 
+    /**
+     * 成员预览（按加入时间取前 N 个，未请求时为空）
+     */
+    private List<TeamMemberVO> memberPreview;
+
     /**
      * 该用户是否已加入队伍
      */
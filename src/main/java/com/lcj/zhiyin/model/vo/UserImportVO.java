@@ -0,0 +1,57 @@
+package com.lcj.zhiyin.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量导入用户进度
+ */
+@Data
+public class UserImportVO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -6383507716285101427L;
+
+    /**
+     * 导入任务 id
+     */
+    private String importId;
+
+    /**
+     * 0 - 导入中，1 - 导入完成，2 - 导入失败
+     */
+    private Integer status;
+
+    /**
+     * 已处理行数
+     */
+    private Long processed;
+
+    /**
+     * 成功导入数
+     */
+    private Long imported;
+
+    /**
+     * 账号已存在（或文件内重复）而跳过的行数
+     */
+    private Long duplicated;
+
+    /**
+     * 校验或写入失败的行数
+     */
+    private Long failed;
+
+    /**
+     * 逐行错误（最多保留前 1000 条），格式：第 N 行 [账号] 原因
+     */
+    private List<String> errors;
+
+    /**
+     * 任务失败原因
+     */
+    private String message;
+}
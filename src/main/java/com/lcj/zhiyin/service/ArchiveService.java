@@ -0,0 +1,12 @@
+package com.lcj.zhiyin.service;
+
+/**
+ * 软删除数据归档服务
+ */
+public interface ArchiveService {
+
+    /**
+     * 把软删除超过保留时间的 user_team、team、user 记录移到归档表，返回归档的总行数
+     */
+    long archiveDeletedRows();
+}
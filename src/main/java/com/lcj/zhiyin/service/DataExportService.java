@@ -0,0 +1,25 @@
+package com.lcj.zhiyin.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 数据导出服务
+ */
+public interface DataExportService {
+
+    /**
+     * 校验导出格式，返回规范化后的格式（csv / ndjson）
+     */
+    String resolveFormat(String format);
+
+    /**
+     * 流式导出全部用户（不含密码）
+     */
+    void exportUsers(String format, OutputStream outputStream) throws IOException;
+
+    /**
+     * 流式导出全部队伍（不含队伍密码）
+     */
+    void exportTeams(String format, OutputStream outputStream) throws IOException;
+}
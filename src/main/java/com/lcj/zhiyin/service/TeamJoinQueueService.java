@@ -0,0 +1,33 @@
+package com.lcj.zhiyin.service;
+
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.model.request.TeamJoinRequest;
+import com.lcj.zhiyin.model.vo.JoinTicketVO;
+
+import java.util.Set;
+
+/**
+ * 排队加入队伍服务（热门队伍开放时削峰）
+ */
+public interface TeamJoinQueueService {
+
+    /**
+     * 加入请求追加到该队伍的 Redis Stream，返回排队凭证
+     */
+    String enqueue(TeamJoinRequest teamJoinRequest, User loginUser);
+
+    /**
+     * 查询排队结果
+     */
+    JoinTicketVO getTicket(String ticket, User loginUser);
+
+    /**
+     * 获取有待处理请求的队伍
+     */
+    Set<Long> listQueuedTeamIds();
+
+    /**
+     * 按顺序处理某队伍排队中的请求，每次调用最多处理固定批数（调用方需保证同一队伍只有一个消费者）
+     */
+    void processQueue(long teamId);
+}
@@ -0,0 +1,41 @@
+package com.lcj.zhiyin.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 队伍推荐服务（基于成员标签的内存索引）
+ */
+public interface TeamRecommendService {
+
+    /**
+     * 按标签匹配度推荐可加入的队伍（公开、未满、未过期），返回按得分降序的队伍 id
+     */
+    List<Long> recommendTeamIds(List<String> tags, Set<Long> excludeTeamIds, int num);
+
+    /**
+     * 重新加载队伍信息及全部成员标签（创建、修改队伍后调用）
+     */
+    void onTeamChanged(long teamId);
+
+    /**
+     * 成员加入后累加队伍标签计数
+     */
+    void onMembersJoined(long teamId, Collection<Long> userIdList);
+
+    /**
+     * 成员退出后扣减队伍标签计数
+     */
+    void onMemberQuit(long teamId, long userId);
+
+    /**
+     * 队伍解散、删除或过期后移出索引
+     */
+    void onTeamsRemoved(Collection<Long> teamIdList);
+
+    /**
+     * 全量重建索引，修正增量维护的偏差
+     */
+    void rebuild();
+}
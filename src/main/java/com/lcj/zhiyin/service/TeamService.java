@@ -2,6 +2,8 @@ package com.lcj.zhiyin.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.lcj.zhiyin.common.CursorPage;
+import com.lcj.zhiyin.common.PageRequest;
 import com.lcj.zhiyin.model.domain.Team;
 import com.lcj.zhiyin.model.domain.User;
 import com.lcj.zhiyin.model.dto.TeamQuery;
@@ -9,9 +11,11 @@ import com.lcj.zhiyin.model.request.TeamCreateRequest;
 import com.lcj.zhiyin.model.request.TeamJoinRequest;
 import com.lcj.zhiyin.model.request.TeamQuitRequest;
 import com.lcj.zhiyin.model.request.TeamUpdateRequest;
+import com.lcj.zhiyin.model.vo.TeamMemberVO;
 import com.lcj.zhiyin.model.vo.TeamUserVO;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 队伍服务
@@ -28,6 +32,31 @@ public interface TeamService extends IService<Team> {
      */
     Page<TeamUserVO> listTeams(TeamQuery teamQuery, String currentUserAccount);
 
+    /**
+     * 搜索队伍（游标分页，不执行 COUNT）
+     */
+    CursorPage<TeamUserVO> listTeamsByCursor(TeamQuery teamQuery, String currentUserAccount);
+
+    /**
+     * 重新计算并写入队伍列表缓存（缓存预热使用）
+     */
+    void refreshTeamListCache(TeamQuery teamQuery);
+
+    /**
+     * 获取我加入的队伍
+     */
+    Page<TeamUserVO> listMyJoinTeams(TeamQuery teamQuery, User loginUser);
+
+    /**
+     * 按当前用户标签推荐可加入的队伍
+     */
+    List<TeamUserVO> recommendTeams(int num, User loginUser);
+
+    /**
+     * 按加入时间先后分页获取队伍成员
+     */
+    Page<TeamMemberVO> listTeamMembers(long teamId, PageRequest pageRequest, User loginUser);
+
     /**
      * 更新队伍
      */
@@ -38,6 +67,16 @@ public interface TeamService extends IService<Team> {
      */
     boolean joinTeam(TeamJoinRequest teamJoinRequest, User loginUser);
 
+    /**
+     * 校验队伍是否可加入（未过期、非私有、加密队伍密码正确）
+     */
+    Team checkJoinable(TeamJoinRequest teamJoinRequest);
+
+    /**
+     * 批量加入队伍（排队加入时使用），返回加入失败的用户及原因
+     */
+    Map<Long, String> joinTeamInBatch(long teamId, List<Long> userIdList);
+
     /**
      * 退出队伍
      */
@@ -48,4 +87,24 @@ public interface TeamService extends IService<Team> {
      * 删除（解散）队伍
      */
     boolean deleteTeam(long id, User loginUser);
+
+    /**
+     * 从过期索引中获取已到期的队伍 id
+     */
+    List<Long> listDueExpiredTeamIds(int limit);
+
+    /**
+     * 从数据库中按 id 顺序获取已过期的队伍 id（补偿过期索引中遗漏的队伍）
+     */
+    List<Long> listExpiredTeamIdsFromDb(long afterId, int limit);
+
+    /**
+     * 锁定队伍行后按 user_team 实际记录校正成员数，返回是否修正
+     */
+    boolean reconcileMemberCount(long teamId);
+
+    /**
+     * 软删除已过期的队伍及其成员关系，返回实际删除的队伍数
+     */
+    int removeExpiredTeams(List<Long> teamIdList);
 }
@@ -0,0 +1,20 @@
+package com.lcj.zhiyin.service;
+
+import com.lcj.zhiyin.common.CursorPage;
+import com.lcj.zhiyin.model.domain.User;
+
+/**
+ * 用户推荐流服务（离线生成到 Redis 有序集合，按游标读取）
+ */
+public interface UserFeedService {
+
+    /**
+     * 游标分页读取推荐流，没有推荐流时读取全局热门列表，返回脱敏用户
+     */
+    CursorPage<User> getFeed(long userId, String cursor, int pageSize);
+
+    /**
+     * 为活跃用户重新生成推荐流和全局热门列表
+     */
+    void rebuildFeeds();
+}
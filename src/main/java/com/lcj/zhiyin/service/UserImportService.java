@@ -0,0 +1,22 @@
+package com.lcj.zhiyin.service;
+
+import com.lcj.zhiyin.model.vo.UserImportVO;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 批量导入用户服务
+ */
+public interface UserImportService {
+
+    /**
+     * 提交导入任务（CSV 或 NDJSON），后台流式导入，返回任务 id
+     *
+     * @param format csv / ndjson，为空时按文件扩展名判断
+     */
+    String startImport(MultipartFile file, String format);
+
+    /**
+     * 查询导入进度和逐行错误
+     */
+    UserImportVO getImportProgress(String importId);
+}
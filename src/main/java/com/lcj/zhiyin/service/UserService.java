@@ -1,9 +1,12 @@
 package com.lcj.zhiyin.service;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.lcj.zhiyin.common.CursorPage;
 import com.lcj.zhiyin.common.response.LoginResponseData;
 import com.lcj.zhiyin.model.domain.User;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -50,15 +53,23 @@ public interface UserService extends IService<User> {
 
 
     /**
-     * 根据用户账号获取用户（用于 Spring Security 获取当前用户）
+     * 根据用户账号获取用户公开资料（不含密码等字段）
      */
     User getUserByUserAccount(String userAccount);
 
+    /**
+     * 根据用户账号获取认证信息（公开资料 + 密码，用于登录校验）
+     */
+    User getAuthUserByUserAccount(String userAccount);
+
     /**
      * 获取当前登录的用户
      */
     User getLoginUser();
 
+    /**
+     * 按 id 批量获取用户公开资料
+     */
     Map<Long, User> getUsersByIds(Set<Long> userIds);
 
 //    /**
@@ -71,8 +82,48 @@ public interface UserService extends IService<User> {
 //     */
 //    boolean isAdmin(User loginUser);
 
+    /**
+     * 分页获取推荐用户（脱敏，走二级缓存）
+     */
+    Page<User> recommendUsers(long pageNum, long pageSize);
+
+    /**
+     * 分页获取脱敏用户（不走缓存，供缓存加载和预热使用）
+     */
+    Page<User> pageSafetyUsers(long pageNum, long pageSize);
+
+    /**
+     * 最近一段时间内登录过的用户 id，按最近登录时间倒序
+     */
+    List<Long> listActiveUserIds(Duration window, int limit);
+
+    /**
+     * 最近一段时间内登录过的用户 id -> 最近登录时间（毫秒），按最近登录时间倒序
+     */
+    Map<Long, Long> listActiveUsers(Duration window, int limit);
+
+    /**
+     * 按 id 批量获取脱敏用户（走 Redis 缓存，未命中的一次查库），按传入顺序返回，不存在或已删除的 id 跳过
+     */
+    List<User> getSafetyUsersByIds(List<Long> userIds);
+
+    /**
+     * 游标分页获取用户（按 id 升序，不执行 COUNT）
+     */
+    CursorPage<User> listUsersByCursor(String cursor, int pageSize);
+
+    /**
+     * 清除用户列表相关缓存（推荐用户、匹配用户、用户总数），批量写入用户后调用
+     */
+    void evictUserListCaches();
+
     /**
      * 匹配用户
      */
     List<User> matchUsers(long num, User loginUser);
+
+    /**
+     * 计算匹配用户（不走缓存，供缓存加载和预热使用）
+     */
+    List<User> computeMatchUsers(long num, User loginUser);
 }
@@ -2,7 +2,9 @@ package com.lcj.zhiyin.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.lcj.zhiyin.model.domain.UserTeam;
+import com.lcj.zhiyin.model.vo.TeamMemberVO;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -13,4 +15,44 @@ import java.util.Set;
 public interface UserTeamService extends IService<UserTeam> {
     Set<Long> getJoinedTeamIds(Long userId, List<Long> teamIdList);
     Map<Long, Long> countByTeamIds(List<Long> teamIdList);
+
+    /**
+     * 保存用户与队伍的关联关系，曾退出过的用户复用旧记录
+     */
+    void saveMembers(long teamId, List<Long> userIdList);
+
+    /**
+     * 获取用户加入的全部队伍 id（走缓存，只用于展示和权限判断；加入数量和重复加入校验在锁定用户行后查询数据库）
+     */
+    Set<Long> getMemberTeamIds(long userId);
+
+    /**
+     * 成员关系变更后清除用户的队伍缓存并递增版本号（事务提交后执行），并发回填的旧数据不会写入
+     */
+    void evictMemberTeamIds(Collection<Long> userIdList);
+
+    /**
+     * 批量获取队伍的成员预览（每个队伍按加入时间取前 previewSize 个）
+     */
+    Map<Long, List<TeamMemberVO>> getMemberPreviews(List<Long> teamIdList, int previewSize);
+
+    /**
+     * 队伍成员数（走按加入时间排序的成员缓存）
+     */
+    long countTeamMembers(long teamId);
+
+    /**
+     * 按加入时间先后分页获取队伍成员关系（走缓存，只包含 userId、teamId、joinTime），count 不为正数时返回空列表
+     */
+    List<UserTeam> listTeamMembers(long teamId, long offset, long count);
+
+    /**
+     * 除指定用户外最早加入的成员（查库，不走缓存），没有其他成员时返回 null
+     */
+    Long getNextLeaderId(long teamId, long excludeUserId);
+
+    /**
+     * 成员变更后清除队伍的成员缓存（事务提交后执行）
+     */
+    void evictTeamMembers(Collection<Long> teamIdList);
 }
@@ -0,0 +1,87 @@
+package com.lcj.zhiyin.service.impl;
+
+import com.lcj.zhiyin.config.ArchiveProperties;
+import com.lcj.zhiyin.mapper.ArchiveMapper;
+import com.lcj.zhiyin.service.ArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 软删除数据归档服务实现类
+ * <p>
+ * 按主键顺序扫描，每批在一个短事务内 锁定 -> 复制到归档表 -> 删除，批次之间停顿限流，
+ * 单次执行超过最长时间后停止，剩余数据留到下次。软删除时间以 update_time 为准。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArchiveServiceImpl implements ArchiveService {
+
+    /**
+     * 归档顺序：先成员关系，再队伍和用户
+     */
+    private static final List<String> ARCHIVE_TABLES = List.of("user_team", "team", "user");
+
+    private final ArchiveMapper archiveMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties archiveProperties;
+
+    @Override
+    public long archiveDeletedRows() {
+        long start = System.currentTimeMillis();
+        long deadline = start + archiveProperties.getMaxDuration().toMillis();
+        LocalDateTime before = LocalDateTime.now().minus(archiveProperties.getRetention());
+        long total = 0;
+        for (String table : ARCHIVE_TABLES) {
+            if (System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            long archived = archiveTable(table, before, deadline);
+            if (archived > 0) {
+                log.info("归档软删除数据, 表 => {}, 行数 => {}", table, archived);
+            }
+            total += archived;
+        }
+        log.info("软删除数据归档结束, 总行数 => {}, 耗时 => {}ms", total, System.currentTimeMillis() - start);
+        return total;
+    }
+
+    private long archiveTable(String table, LocalDateTime before, long deadline) {
+        long archived = 0;
+        long lastId = 0;
+        while (System.currentTimeMillis() < deadline) {
+            List<Long> idList = archiveMapper.selectArchivableIds(table, lastId, before, archiveProperties.getBatchSize());
+            if (idList.isEmpty()) {
+                break;
+            }
+            lastId = idList.get(idList.size() - 1);
+
+            Integer moved = transactionTemplate.execute(status -> {
+                // 重新确认并加锁，扫描之后被恢复的记录不再归档
+                List<Long> lockedIds = archiveMapper.lockArchivableIds(table, idList, before);
+                if (lockedIds.isEmpty()) {
+                    return 0;
+                }
+                archiveMapper.copyToArchive(table, lockedIds);
+                return archiveMapper.deleteByIds(table, lockedIds);
+            });
+            archived += moved == null ? 0 : moved;
+
+            if (idList.size() < archiveProperties.getBatchSize()) {
+                break;
+            }
+            try {
+                Thread.sleep(archiveProperties.getBatchPause().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return archived;
+    }
+}
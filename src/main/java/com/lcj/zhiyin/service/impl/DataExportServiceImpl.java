@@ -0,0 +1,231 @@
+package com.lcj.zhiyin.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lcj.zhiyin.common.ErrorCode;
+import com.lcj.zhiyin.exception.BusinessException;
+import com.lcj.zhiyin.mapper.TeamMapper;
+import com.lcj.zhiyin.mapper.UserMapper;
+import com.lcj.zhiyin.model.domain.Team;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.service.DataExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 数据导出服务实现类
+ * <p>
+ * 从 MyBatis 游标逐行读取，逐行写入输出流，内存占用与数据量无关，也不执行 COUNT。
+ * 流式结果集在读完前一直占用连接，客户端读取很慢时受 MySQL 的 net_write_timeout 限制，
+ * 驱动默认会把流式读取的超时放宽到 netTimeoutForStreamingResults（600 秒）。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataExportServiceImpl implements DataExportService {
+
+    private static final String FORMAT_CSV = "csv";
+
+    private static final String FORMAT_NDJSON = "ndjson";
+
+    /**
+     * 每写入多少行刷新一次输出流，让客户端持续收到数据
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private static final String[] USER_COLUMNS = {"id", "username", "userAccount", "avatarUrl", "gender",
+            "phone", "email", "tags", "userStatus", "userRole", "createTime"};
+
+    private static final String[] TEAM_COLUMNS = {"id", "name", "description", "maxNum", "memberCount",
+            "expireTime", "userId", "status", "createTime"};
+
+    private final UserMapper userMapper;
+    private final TeamMapper teamMapper;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String resolveFormat(String format) {
+        String resolved = StringUtils.isBlank(format) ? FORMAT_NDJSON : format.trim().toLowerCase(Locale.ROOT);
+        if ("jsonl".equals(resolved)) {
+            resolved = FORMAT_NDJSON;
+        }
+        if (!FORMAT_CSV.equals(resolved) && !FORMAT_NDJSON.equals(resolved)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "只支持 CSV 或 NDJSON 格式");
+        }
+        return resolved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(String format, OutputStream outputStream) throws IOException {
+        try (Cursor<User> cursor = userMapper.streamExportUsers()) {
+            long count = export(cursor, resolveFormat(format), USER_COLUMNS, user -> new Object[]{
+                    user.getId(), user.getUsername(), user.getUserAccount(), user.getAvatarUrl(), user.getGender(),
+                    user.getPhone(), user.getEmail(), user.getTags(), user.getUserStatus(), user.getUserRole(),
+                    user.getCreateTime()}, outputStream);
+            log.info("导出用户完成, 行数 => {}", count);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTeams(String format, OutputStream outputStream) throws IOException {
+        try (Cursor<Team> cursor = teamMapper.streamExportTeams()) {
+            long count = export(cursor, resolveFormat(format), TEAM_COLUMNS, team -> new Object[]{
+                    team.getId(), team.getName(), team.getDescription(), team.getMaxNum(), team.getMemberCount(),
+                    team.getExpireTime(), team.getUserId(), team.getStatus(), team.getCreateTime()}, outputStream);
+            log.info("导出队伍完成, 行数 => {}", count);
+        }
+    }
+
+    private <T> long export(Cursor<T> cursor, String format, String[] columns, Function<T, Object[]> rowMapper,
+                            OutputStream outputStream) throws IOException {
+        try (RowWriter rowWriter = FORMAT_CSV.equals(format)
+                ? new CsvRowWriter(outputStream, columns)
+                : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8), columns)) {
+            long count = 0;
+            for (T item : cursor) {
+                rowWriter.write(rowMapper.apply(item));
+                if (++count % FLUSH_INTERVAL == 0) {
+                    rowWriter.flush();
+                }
+            }
+            return count;
+        }
+    }
+
+    private interface RowWriter extends Closeable, Flushable {
+
+        void write(Object[] values) throws IOException;
+    }
+
+    /**
+     * NDJSON：用 Jackson 流式生成器逐个写出对象，每行一个
+     */
+    private static class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private final String[] columns;
+
+        NdjsonRowWriter(JsonGenerator generator, String[] columns) {
+            // 输出流由调用方（Servlet 容器）关闭
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator = generator;
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long longValue) {
+                    generator.writeNumber(longValue);
+                } else if (value instanceof Integer intValue) {
+                    generator.writeNumber(intValue);
+                } else if (value instanceof List<?> list) {
+                    generator.writeStartArray();
+                    for (Object element : list) {
+                        generator.writeString(String.valueOf(element));
+                    }
+                    generator.writeEndArray();
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * CSV：首行为表头，带 BOM 方便 Excel 识别 UTF-8；含逗号、引号、换行的字段用双引号包裹，列表字段用 | 连接，
+     * 可能被当作公式的文本字段加单引号前缀
+     */
+    private static class CsvRowWriter implements RowWriter {
+
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream outputStream, String[] columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write('\uFEFF');
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                String text = value instanceof List<?> list
+                        ? String.join("|", list.stream().map(String::valueOf).toList())
+                        : value.toString();
+                writer.write(escape(value instanceof Number ? text : neutralize(text)));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        /**
+         * 只刷新，不关闭输出流
+         */
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        /**
+         * 以 = + - @ 制表符或回车开头的文本会被 Excel 当作公式执行，前面加单引号按纯文本显示
+         */
+        private static String neutralize(String text) {
+            if (!text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+                return "'" + text;
+            }
+            return text;
+        }
+
+        private static String escape(String text) {
+            if (StringUtils.containsNone(text, ',', '"', '\n', '\r')) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+}
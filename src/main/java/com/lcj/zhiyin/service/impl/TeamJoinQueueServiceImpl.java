@@ -0,0 +1,265 @@
+package com.lcj.zhiyin.service.impl;
+
+import com.lcj.zhiyin.common.ErrorCode;
+import com.lcj.zhiyin.exception.BusinessException;
+import com.lcj.zhiyin.model.domain.Team;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.model.enums.JoinTicketStatusEnum;
+import com.lcj.zhiyin.model.request.TeamJoinRequest;
+import com.lcj.zhiyin.model.vo.JoinTicketVO;
+import com.lcj.zhiyin.service.TeamJoinQueueService;
+import com.lcj.zhiyin.service.TeamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 排队加入队伍服务实现类
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamJoinQueueServiceImpl implements TeamJoinQueueService {
+
+    private static final String STREAM_KEY_PREFIX = "zhiyin:team:join:stream:";
+
+    private static final String QUEUED_TEAMS_KEY = "zhiyin:team:join:queued_teams";
+
+    private static final String TICKET_KEY_PREFIX = "zhiyin:team:join:ticket:";
+
+    private static final String QUEUED_USER_KEY_PREFIX = "zhiyin:team:join:queued_user:";
+
+    private static final long TICKET_TTL_MINUTES = 30;
+
+    private static final String ATTEMPTS_KEY_PREFIX = "zhiyin:team:join:attempts:";
+
+    private static final int BATCH_SIZE = 50;
+
+    /**
+     * 每轮最多处理的批数，处理不完的留到下一轮，避免热门队伍长时间占用消费者
+     */
+    static final int MAX_BATCHES_PER_TURN = 20;
+
+    /**
+     * 同一批消息处理失败（非业务异常）的最大次数，超过后判定这批请求失败并删除消息，避免阻塞后续排队
+     */
+    static final int MAX_ATTEMPTS = 5;
+
+    private final StringRedisTemplate redisTemplate;
+    private final TeamService teamService;
+
+    @Override
+    public String enqueue(TeamJoinRequest teamJoinRequest, User loginUser) {
+        // 入队前做与同步加入相同的校验，过期、私有、密码错误直接返回
+        Team team = teamService.checkJoinable(teamJoinRequest);
+        long teamId = team.getId();
+        long userId = loginUser.getId();
+
+        // 同一用户同一队伍只允许一个排队中的请求
+        String ticket = UUID.randomUUID().toString().replace("-", "");
+        Boolean firstQueued = redisTemplate.opsForValue().setIfAbsent(
+                QUEUED_USER_KEY_PREFIX + teamId + ":" + userId, ticket, TICKET_TTL_MINUTES, TimeUnit.MINUTES);
+        if (!Boolean.TRUE.equals(firstQueued)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "已在排队中");
+        }
+
+        String ticketKey = TICKET_KEY_PREFIX + ticket;
+        Map<String, String> ticketMap = new HashMap<>();
+        ticketMap.put("teamId", String.valueOf(teamId));
+        ticketMap.put("userId", String.valueOf(userId));
+        ticketMap.put("status", String.valueOf(JoinTicketStatusEnum.PENDING.getValue()));
+        redisTemplate.opsForHash().putAll(ticketKey, ticketMap);
+        redisTemplate.expire(ticketKey, TICKET_TTL_MINUTES, TimeUnit.MINUTES);
+
+        String streamKey = STREAM_KEY_PREFIX + teamId;
+        redisTemplate.opsForStream().add(StreamRecords.newRecord()
+                .in(streamKey)
+                .ofMap(Map.of("ticket", ticket, "userId", String.valueOf(userId))));
+        redisTemplate.expire(streamKey, 1, TimeUnit.DAYS);
+        redisTemplate.opsForSet().add(QUEUED_TEAMS_KEY, String.valueOf(teamId));
+        return ticket;
+    }
+
+    @Override
+    public JoinTicketVO getTicket(String ticket, User loginUser) {
+        Map<Object, Object> ticketMap = redisTemplate.opsForHash().entries(TICKET_KEY_PREFIX + ticket);
+        if (ticketMap.isEmpty()) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "排队凭证不存在或已过期");
+        }
+        if (!String.valueOf(loginUser.getId()).equals(ticketMap.get("userId"))) {
+            throw new BusinessException(ErrorCode.NO_AUTH);
+        }
+        JoinTicketVO joinTicketVO = new JoinTicketVO();
+        joinTicketVO.setTicket(ticket);
+        joinTicketVO.setTeamId(Long.valueOf((String) ticketMap.get("teamId")));
+        joinTicketVO.setStatus(Integer.valueOf((String) ticketMap.get("status")));
+        joinTicketVO.setMessage((String) ticketMap.get("message"));
+        return joinTicketVO;
+    }
+
+    @Override
+    public Set<Long> listQueuedTeamIds() {
+        Set<String> members = redisTemplate.opsForSet().members(QUEUED_TEAMS_KEY);
+        if (members == null) {
+            return Collections.emptySet();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    @Override
+    public void processQueue(long teamId) {
+        String streamKey = STREAM_KEY_PREFIX + teamId;
+        StreamOperations<String, Object, Object> streamOperations = redisTemplate.opsForStream();
+        for (int batch = 0; batch < MAX_BATCHES_PER_TURN; batch++) {
+            List<MapRecord<String, Object, Object>> records =
+                    streamOperations.range(streamKey, Range.unbounded(), Limit.limit().count(BATCH_SIZE));
+            if (records == null || records.isEmpty()) {
+                removeIfDrained(teamId, streamKey);
+                return;
+            }
+            String attemptsKey = ATTEMPTS_KEY_PREFIX + teamId + ":" + records.get(0).getId().getValue();
+            try {
+                handleBatch(teamId, records);
+            } catch (RuntimeException e) {
+                Long attempts = redisTemplate.opsForValue().increment(attemptsKey);
+                redisTemplate.expire(attemptsKey, TICKET_TTL_MINUTES, TimeUnit.MINUTES);
+                if (attempts == null || attempts < MAX_ATTEMPTS) {
+                    // 消息未删除，下次继续处理
+                    throw e;
+                }
+                log.error("队伍 {} 的排队请求连续处理失败 {} 次, 判定失败并删除", teamId, attempts, e);
+                failBatch(teamId, records, "系统繁忙，加入失败，请稍后重试");
+            }
+            redisTemplate.delete(attemptsKey);
+            streamOperations.delete(streamKey, records.stream().map(MapRecord::getId).toArray(RecordId[]::new));
+        }
+        // 本轮处理到上限，队伍仍留在待处理集合中，下一轮继续
+    }
+
+    /**
+     * 队列已空则移出待处理集合，移出期间又有请求入队时重新加入
+     */
+    private void removeIfDrained(long teamId, String streamKey) {
+        String member = String.valueOf(teamId);
+        redisTemplate.opsForSet().remove(QUEUED_TEAMS_KEY, member);
+        Long size = redisTemplate.opsForStream().size(streamKey);
+        if (size != null && size > 0) {
+            redisTemplate.opsForSet().add(QUEUED_TEAMS_KEY, member);
+        }
+    }
+
+    /**
+     * 按入队顺序批量加入，整批失败时逐个重试以得到每个请求的结果
+     * <p>
+     * 只处理业务异常，数据库等异常向上抛出由 processQueue 计数重试；逐个加入时每处理一个就写回结果，
+     * 重试时已处理的凭证不再是排队中状态，不会重复加入
+     */
+    private void handleBatch(long teamId, List<MapRecord<String, Object, Object>> records) {
+        // userId -> ticket，跳过已处理过的凭证（上次处理完未来得及删除消息）
+        Map<Long, String> ticketMap = new LinkedHashMap<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            String ticket = toStringOrNull(record.getValue().get("ticket"));
+            Long userId = parseUserId(record.getValue().get("userId"));
+            if (ticket == null || userId == null) {
+                log.warn("队伍 {} 的排队消息格式错误, 跳过 => {}", teamId, record.getValue());
+                if (ticket != null && isPending(ticket)) {
+                    failTicket(teamId, ticket, "请求格式错误");
+                }
+                continue;
+            }
+            if (isPending(ticket)) {
+                ticketMap.putIfAbsent(userId, ticket);
+            }
+        }
+        if (ticketMap.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> failedMap;
+        try {
+            failedMap = teamService.joinTeamInBatch(teamId, new ArrayList<>(ticketMap.keySet()));
+        } catch (BusinessException e) {
+            log.warn("队伍 {} 批量加入失败, 改为逐个加入 => {}", teamId, e.getMessage());
+            ticketMap.forEach((userId, ticket) -> {
+                String failedMessage;
+                try {
+                    failedMessage = teamService.joinTeamInBatch(teamId, List.of(userId)).get(userId);
+                } catch (BusinessException ex) {
+                    failedMessage = ex.getMessage();
+                }
+                finishTicket(teamId, userId, ticket, failedMessage);
+            });
+            return;
+        }
+
+        ticketMap.forEach((userId, ticket) -> finishTicket(teamId, userId, ticket, failedMap.get(userId)));
+    }
+
+    /**
+     * 把这批消息中仍在排队的请求标记为失败
+     */
+    private void failBatch(long teamId, List<MapRecord<String, Object, Object>> records, String message) {
+        for (MapRecord<String, Object, Object> record : records) {
+            String ticket = toStringOrNull(record.getValue().get("ticket"));
+            if (ticket != null && isPending(ticket)) {
+                failTicket(teamId, ticket, message);
+            }
+        }
+    }
+
+    private void failTicket(long teamId, String ticket, String message) {
+        // 以凭证中记录的用户为准，消息中的 userId 可能不可用
+        Long userId = parseUserId(redisTemplate.opsForHash().get(TICKET_KEY_PREFIX + ticket, "userId"));
+        Map<String, String> resultMap = new HashMap<>();
+        resultMap.put("status", String.valueOf(JoinTicketStatusEnum.FAILED.getValue()));
+        resultMap.put("message", message);
+        redisTemplate.opsForHash().putAll(TICKET_KEY_PREFIX + ticket, resultMap);
+        if (userId != null) {
+            redisTemplate.delete(QUEUED_USER_KEY_PREFIX + teamId + ":" + userId);
+        }
+    }
+
+    private boolean isPending(String ticket) {
+        return String.valueOf(JoinTicketStatusEnum.PENDING.getValue())
+                .equals(redisTemplate.opsForHash().get(TICKET_KEY_PREFIX + ticket, "status"));
+    }
+
+    private static String toStringOrNull(Object value) {
+        return value instanceof String text && !text.isEmpty() ? text : null;
+    }
+
+    private static Long parseUserId(Object value) {
+        String text = toStringOrNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void finishTicket(long teamId, long userId, String ticket, String failedMessage) {
+        Map<String, String> resultMap = new HashMap<>();
+        if (failedMessage == null) {
+            resultMap.put("status", String.valueOf(JoinTicketStatusEnum.SUCCESS.getValue()));
+        } else {
+            resultMap.put("status", String.valueOf(JoinTicketStatusEnum.FAILED.getValue()));
+            resultMap.put("message", failedMessage);
+        }
+        redisTemplate.opsForHash().putAll(TICKET_KEY_PREFIX + ticket, resultMap);
+        redisTemplate.delete(QUEUED_USER_KEY_PREFIX + teamId + ":" + userId);
+    }
+}
@@ -0,0 +1,397 @@
+package com.lcj.zhiyin.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lcj.zhiyin.datasource.ReadReplica;
+import com.lcj.zhiyin.mapper.TeamMapper;
+import com.lcj.zhiyin.mapper.UserMapper;
+import com.lcj.zhiyin.mapper.UserTeamMapper;
+import com.lcj.zhiyin.model.domain.Team;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.model.dto.TeamMemberTagDTO;
+import com.lcj.zhiyin.model.enums.TeamStatusEnum;
+import com.lcj.zhiyin.service.TeamRecommendService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 队伍推荐服务实现类
+ * <p>
+ * 每个队伍的标签画像为成员标签的计数（标签 -> 拥有该标签的成员数），另建标签 -> 队伍的倒排索引，
+ * 推荐时只为与用户标签有交集的队伍打分。加入、退出时增量维护，定时全量重建兜底。
+ * 索引在每个节点的内存中，本节点更新后通过 Redis 频道通知其他节点从数据库重新加载受影响的队伍。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamRecommendServiceImpl implements TeamRecommendService, MessageListener {
+
+    public static final String SYNC_CHANNEL = "zhiyin:team:recommend:sync";
+
+    private static final String SEPARATOR = "|";
+
+    private static final String OP_RELOAD = "reload";
+
+    private static final String OP_REMOVE = "remove";
+
+    /**
+     * 当前节点标识，忽略自己发出的消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final TeamMapper teamMapper;
+    private final UserTeamMapper userTeamMapper;
+    private final UserMapper userMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 队伍 id -> 队伍画像
+     */
+    private Map<Long, TeamProfile> profileMap = new HashMap<>();
+
+    /**
+     * 标签 -> 有成员拥有该标签的队伍 id
+     */
+    private Map<String, Set<Long>> tagIndex = new HashMap<>();
+
+    @Override
+    public List<Long> recommendTeamIds(List<String> tags, Set<Long> excludeTeamIds, int num) {
+        Set<String> tagSet = normalizeTags(tags);
+        if (tagSet.isEmpty() || num <= 0) {
+            return Collections.emptyList();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Double> scoreMap = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String tag : tagSet) {
+                for (Long teamId : tagIndex.getOrDefault(tag, Collections.emptySet())) {
+                    TeamProfile profile = profileMap.get(teamId);
+                    if (excludeTeamIds.contains(teamId) || profile == null || !profile.isJoinable(now)) {
+                        continue;
+                    }
+                    scoreMap.merge(teamId, profile.weightOf(tag), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // 得分相同时优先推荐新队伍
+        return scoreMap.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                .limit(num)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void onTeamChanged(long teamId) {
+        reloadTeam(teamId);
+        publish(OP_RELOAD, List.of(teamId));
+    }
+
+    @Override
+    public void onMembersJoined(long teamId, Collection<Long> userIdList) {
+        if (CollectionUtils.isEmpty(userIdList)) {
+            return;
+        }
+        addMembers(teamId, userIdList);
+        publish(OP_RELOAD, List.of(teamId));
+    }
+
+    @Override
+    public void onMemberQuit(long teamId, long userId) {
+        removeMember(teamId, userId);
+        publish(OP_RELOAD, List.of(teamId));
+    }
+
+    @Override
+    public void onTeamsRemoved(Collection<Long> teamIdList) {
+        removeTeams(teamIdList);
+        publish(OP_REMOVE, teamIdList);
+    }
+
+    /**
+     * 其他节点的索引变更：重新加载或移除对应队伍
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        List<Long> teamIdList = Arrays.stream(parts[2].split(","))
+                .filter(StringUtils::isNumeric)
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+        if (OP_REMOVE.equals(parts[1])) {
+            removeTeams(teamIdList);
+        } else if (OP_RELOAD.equals(parts[1])) {
+            teamIdList.forEach(this::reloadTeam);
+        }
+    }
+
+    private void reloadTeam(long teamId) {
+        try {
+            Team team = teamMapper.selectById(teamId);
+            TeamProfile profile = null;
+            if (team != null) {
+                profile = new TeamProfile(team);
+                for (TeamMemberTagDTO memberTag : userTeamMapper.selectMemberTags(List.of(teamId))) {
+                    profile.addMember(normalizeTags(memberTag.getTags()));
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                removeProfile(teamId);
+                if (profile != null) {
+                    putProfile(profile);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            log.error("更新队伍推荐索引失败, teamId => {}", teamId, e);
+        }
+    }
+
+    private void addMembers(long teamId, Collection<Long> userIdList) {
+        lock.readLock().lock();
+        boolean indexed;
+        try {
+            indexed = profileMap.containsKey(teamId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        // 索引中还没有该队伍时直接整队加载
+        if (!indexed) {
+            reloadTeam(teamId);
+            return;
+        }
+        try {
+            List<Set<String>> memberTags = listUserTags(userIdList);
+            lock.writeLock().lock();
+            try {
+                TeamProfile profile = profileMap.get(teamId);
+                if (profile == null) {
+                    return;
+                }
+                profile.memberCount += userIdList.size();
+                memberTags.forEach(tagSet -> profile.addMember(tagSet)
+                        .forEach(tag -> tagIndex.computeIfAbsent(tag, key -> new HashSet<>()).add(teamId)));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            log.error("更新队伍推荐索引失败, teamId => {}", teamId, e);
+        }
+    }
+
+    private void removeMember(long teamId, long userId) {
+        try {
+            List<Set<String>> memberTags = listUserTags(List.of(userId));
+            lock.writeLock().lock();
+            try {
+                TeamProfile profile = profileMap.get(teamId);
+                if (profile == null) {
+                    return;
+                }
+                profile.memberCount = Math.max(profile.memberCount - 1, 0);
+                memberTags.forEach(tagSet -> profile.removeMember(tagSet).forEach(tag -> {
+                    Set<Long> teamIds = tagIndex.get(tag);
+                    if (teamIds != null && teamIds.remove(teamId) && teamIds.isEmpty()) {
+                        tagIndex.remove(tag);
+                    }
+                }));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            log.error("更新队伍推荐索引失败, teamId => {}", teamId, e);
+        }
+    }
+
+    private void removeTeams(Collection<Long> teamIdList) {
+        lock.writeLock().lock();
+        try {
+            teamIdList.forEach(this::removeProfile);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @ReadReplica
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, TeamProfile> newProfileMap = teamMapper.selectList(new LambdaQueryWrapper<Team>()
+                        .select(Team::getId, Team::getStatus, Team::getMaxNum, Team::getMemberCount, Team::getExpireTime)
+                        .and(qw -> qw.isNull(Team::getExpireTime).or().gt(Team::getExpireTime, now)))
+                .stream()
+                .collect(Collectors.toMap(Team::getId, TeamProfile::new));
+        for (TeamMemberTagDTO memberTag : userTeamMapper.selectMemberTags(null)) {
+            TeamProfile profile = newProfileMap.get(memberTag.getTeamId());
+            if (profile != null) {
+                profile.addMember(normalizeTags(memberTag.getTags()));
+            }
+        }
+        Map<String, Set<Long>> newTagIndex = new HashMap<>();
+        newProfileMap.values().forEach(profile -> profile.tagCounts.keySet()
+                .forEach(tag -> newTagIndex.computeIfAbsent(tag, key -> new HashSet<>()).add(profile.teamId)));
+
+        // 重建期间的增量更新会被覆盖，由下一次重建修正
+        lock.writeLock().lock();
+        try {
+            profileMap = newProfileMap;
+            tagIndex = newTagIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("队伍推荐索引重建完成, 队伍数 => {}, 标签数 => {}, 耗时 => {}ms",
+                newProfileMap.size(), newTagIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    private void publish(String op, Collection<Long> teamIdList) {
+        if (CollectionUtils.isEmpty(teamIdList)) {
+            return;
+        }
+        String message = nodeId + SEPARATOR + op + SEPARATOR
+                + teamIdList.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            stringRedisTemplate.convertAndSend(SYNC_CHANNEL, message);
+        } catch (Exception e) {
+            log.error("publish team recommend sync error, op => {}", op, e);
+        }
+    }
+
+    private List<Set<String>> listUserTags(Collection<Long> userIdList) {
+        return userMapper.selectList(new LambdaQueryWrapper<User>()
+                        .select(User::getId, User::getTags)
+                        .in(User::getId, userIdList))
+                .stream()
+                .map(user -> normalizeTags(user.getTags()))
+                .collect(Collectors.toList());
+    }
+
+    private void putProfile(TeamProfile profile) {
+        profileMap.put(profile.teamId, profile);
+        profile.tagCounts.keySet().forEach(tag -> tagIndex.computeIfAbsent(tag, key -> new HashSet<>()).add(profile.teamId));
+    }
+
+    private void removeProfile(long teamId) {
+        TeamProfile profile = profileMap.remove(teamId);
+        if (profile == null) {
+            return;
+        }
+        profile.tagCounts.keySet().forEach(tag -> {
+            Set<Long> teamIds = tagIndex.get(tag);
+            if (teamIds != null && teamIds.remove(teamId) && teamIds.isEmpty()) {
+                tagIndex.remove(tag);
+            }
+        });
+    }
+
+    /**
+     * 标签去空格、统一小写并去重
+     */
+    private static Set<String> normalizeTags(List<String> tags) {
+        if (CollectionUtils.isEmpty(tags)) {
+            return Collections.emptySet();
+        }
+        return tags.stream()
+                .filter(StringUtils::isNotBlank)
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 队伍画像，只在持有写锁时修改
+     */
+    private static class TeamProfile {
+
+        private final long teamId;
+
+        private final Integer status;
+
+        private final int maxNum;
+
+        private final LocalDateTime expireTime;
+
+        private int memberCount;
+
+        /**
+         * 计入画像的成员数（标签权重的分母）
+         */
+        private int profiledMembers;
+
+        /**
+         * 标签 -> 拥有该标签的成员数
+         */
+        private final Map<String, Integer> tagCounts = new HashMap<>();
+
+        TeamProfile(Team team) {
+            this.teamId = team.getId();
+            this.status = team.getStatus();
+            this.maxNum = Optional.ofNullable(team.getMaxNum()).orElse(0);
+            this.expireTime = team.getExpireTime();
+            this.memberCount = Optional.ofNullable(team.getMemberCount()).orElse(0);
+        }
+
+        /**
+         * 累加成员标签，返回计数从 0 变为 1 的标签
+         */
+        List<String> addMember(Set<String> tags) {
+            profiledMembers++;
+            List<String> newTags = new ArrayList<>();
+            tags.forEach(tag -> {
+                if (tagCounts.merge(tag, 1, Integer::sum) == 1) {
+                    newTags.add(tag);
+                }
+            });
+            return newTags;
+        }
+
+        /**
+         * 扣减成员标签，返回计数归零的标签
+         */
+        List<String> removeMember(Set<String> tags) {
+            profiledMembers = Math.max(profiledMembers - 1, 0);
+            List<String> emptyTags = new ArrayList<>();
+            tags.forEach(tag -> {
+                Integer count = tagCounts.computeIfPresent(tag, (key, value) -> value > 1 ? value - 1 : null);
+                if (count == null) {
+                    emptyTags.add(tag);
+                }
+            });
+            return emptyTags;
+        }
+
+        /**
+         * 标签权重：拥有该标签的成员占比
+         */
+        double weightOf(String tag) {
+            return profiledMembers == 0 ? 0 : (double) tagCounts.getOrDefault(tag, 0) / profiledMembers;
+        }
+
+        boolean isJoinable(LocalDateTime now) {
+            return Objects.equals(status, TeamStatusEnum.PUBLIC.getValue())
+                    && memberCount < maxNum
+                    && (expireTime == null || expireTime.isAfter(now));
+        }
+    }
+}
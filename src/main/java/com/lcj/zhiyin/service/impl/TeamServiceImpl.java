@@ -1,10 +1,16 @@
 package com.lcj.zhiyin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.lcj.zhiyin.common.CursorPage;
+import com.lcj.zhiyin.common.PageRequest;
+import com.lcj.zhiyin.datasource.DataSourceContextHolder;
+import com.lcj.zhiyin.datasource.ReadReplica;
 import com.lcj.zhiyin.exception.BusinessException;
 import com.lcj.zhiyin.common.ErrorCode;
+import com.lcj.zhiyin.model.converter.TeamConverter;
 import com.lcj.zhiyin.model.domain.User;
 import com.lcj.zhiyin.model.domain.UserTeam;
 import com.lcj.zhiyin.model.dto.TeamQuery;
@@ -13,27 +19,43 @@ import com.lcj.zhiyin.model.request.TeamCreateRequest;
 import com.lcj.zhiyin.model.request.TeamJoinRequest;
 import com.lcj.zhiyin.model.request.TeamQuitRequest;
 import com.lcj.zhiyin.model.request.TeamUpdateRequest;
+import com.lcj.zhiyin.model.vo.TeamMemberVO;
 import com.lcj.zhiyin.model.vo.TeamUserVO;
+import com.lcj.zhiyin.service.TeamRecommendService;
 import com.lcj.zhiyin.service.TeamService;
 import com.lcj.zhiyin.model.domain.Team;
 import com.lcj.zhiyin.mapper.TeamMapper;
+import com.lcj.zhiyin.mapper.UserMapper;
+import com.lcj.zhiyin.mapper.UserTeamMapper;
 import com.lcj.zhiyin.service.UserService;
 import com.lcj.zhiyin.service.UserTeamService;
+import com.lcj.zhiyin.utils.CursorUtils;
+import com.lcj.zhiyin.utils.SingleFlight;
 import com.mysql.cj.log.Log;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
-import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
@@ -45,10 +67,46 @@ import java.util.stream.Collectors;
 public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         implements TeamService {
 
+    private static final String TEAM_LIST_KEY_PREFIX = "zhiyin:team:list:";
+
+    private static final String TEAM_LIST_VERSION_KEY = "zhiyin:team:list:version";
+
+    private static final String TEAM_LIST_TOTAL_KEY_PREFIX = "zhiyin:team:list:total:";
+
+    private static final String TEAM_EXPIRE_KEY = "zhiyin:team:expire";
+
+    private static final long TEAM_LIST_CACHE_MINUTES = 5;
+
+    /**
+     * 并发补充查询的截止时间，与查询语句超时一致
+     */
+    private static final long ENRICH_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(UserTeamMapper.LOOKUP_TIMEOUT_SECONDS);
+
+    private static final int MAX_RECOMMEND_NUM = 20;
+
+    /**
+     * 成员列表每页最多条数
+     */
+    private static final int MAX_MEMBER_PAGE_SIZE = 100;
+
+    /**
+     * 与 MySQL 的 ngram_token_size 一致，更短的关键词无法命中全文索引，改用 LIKE
+     */
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
     private final UserTeamService userTeamService;
     private final UserService userService;
-    private final RedissonClient redissonClient;
     private final TeamMapper teamMapper;
+    private final UserMapper userMapper;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ThreadPoolTaskExecutor teamQueryExecutor;
+    private final TeamRecommendService teamRecommendService;
+
+    /**
+     * 队伍列表缓存未命中时按缓存 key 合并并发查询
+     */
+    private final SingleFlight<String, Page<TeamUserVO>> teamListFlight = new SingleFlight<>();
 
 
     @Override
@@ -66,10 +124,9 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户最多创建 5 个队伍");
         }
         // 插入队伍信息
-        Team team = new Team();
-        BeanUtils.copyProperties(teamCreateRequest, team);
-        team.setId(null);
+        Team team = TeamConverter.toTeam(teamCreateRequest);
         team.setUserId(userId);
+        team.setMemberCount(1);
         boolean result = this.save(team);
 
         log.info("创建的队伍为 => {}", team);
@@ -91,6 +148,10 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         if (!result) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "创建队伍失败");
         }
+        userTeamService.evictMemberTeamIds(List.of(userId));
+        bumpTeamListVersion();
+        scheduleTeamExpire(teamId, team.getExpireTime());
+        runAfterCommit(() -> teamRecommendService.onTeamChanged(teamId));
         return teamId;
     }
 
@@ -108,8 +169,10 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
             throw new BusinessException(ErrorCode.NO_AUTH);
         }
 
-        Team updateTeam = new Team();
-        BeanUtils.copyProperties(teamUpdateRequest, updateTeam);
+        Team updateTeam = TeamConverter.toTeam(teamUpdateRequest);
+        bumpTeamListVersion();
+        scheduleTeamExpire(updateTeam.getId(), updateTeam.getExpireTime());
+        runAfterCommit(() -> teamRecommendService.onTeamChanged(updateTeam.getId()));
         return this.updateById(updateTeam);
     }
 
@@ -138,114 +201,484 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
     }
 
     @Override
+    @ReadReplica
     public Page<TeamUserVO> listTeams(TeamQuery teamQuery, String currentUserAccount) {
+        // 与用户无关的分页结果按查询条件 + 全局版本号缓存，所有用户共享
+        String cacheKey = buildTeamListCacheKey(teamQuery);
+        Page<TeamUserVO> teamUserVOPage = getCachedTeamList(cacheKey);
+        if (teamUserVOPage == null) {
+            // 并发未命中时同一个 key 只查询一次，结果被多个请求共享，复制后再修改
+            teamUserVOPage = copyTeamUserVOPage(teamListFlight.execute(cacheKey, () -> loadAndCacheTeamList(cacheKey, teamQuery)));
+        }
+
+        // 写入 / 读取缓存后再叠加当前用户相关的字段
+        Set<Long> joinedTeamIds = getCurrentUserTeamIds(currentUserAccount);
+        teamUserVOPage.getRecords().forEach(vo -> vo.setHasJoin(joinedTeamIds.contains(vo.getId())));
+        return teamUserVOPage;
+    }
+
+    @Override
+    public void refreshTeamListCache(TeamQuery teamQuery) {
+        String cacheKey = buildTeamListCacheKey(teamQuery);
+        teamListFlight.execute(cacheKey, () -> buildAndCacheTeamList(cacheKey, teamQuery));
+    }
+
+    private Page<TeamUserVO> loadAndCacheTeamList(String cacheKey, TeamQuery teamQuery) {
+        // 排队期间上一次查询可能已经写入缓存
+        Page<TeamUserVO> teamUserVOPage = getCachedTeamList(cacheKey);
+        if (teamUserVOPage != null) {
+            return teamUserVOPage;
+        }
+        return buildAndCacheTeamList(cacheKey, teamQuery);
+    }
+
+    /**
+     * 结果会写入缓存，查询走主库（补充查询的线程池会带上数据源选择）
+     */
+    private Page<TeamUserVO> buildAndCacheTeamList(String cacheKey, TeamQuery teamQuery) {
+        Page<TeamUserVO> teamUserVOPage = DataSourceContextHolder.callOnPrimary(() -> {
+            Page<TeamUserVO> loadedPage = loadTeamList(teamQuery);
+            enrichConcurrently(loadedPage.getRecords(), null, teamQuery.getPreviewSize());
+            return loadedPage;
+        });
+        try {
+            redisTemplate.opsForValue().set(cacheKey, teamUserVOPage, TEAM_LIST_CACHE_MINUTES, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.error("redis set key error", e);
+        }
+        return teamUserVOPage;
+    }
+
+    private Page<TeamUserVO> copyTeamUserVOPage(Page<TeamUserVO> teamUserVOPage) {
+        Page<TeamUserVO> copyPage = new Page<>(teamUserVOPage.getCurrent(), teamUserVOPage.getSize(), teamUserVOPage.getTotal());
+        copyPage.setRecords(teamUserVOPage.getRecords().stream()
+                .map(TeamConverter::copyOf)
+                .collect(Collectors.toList()));
+        return copyPage;
+    }
+
+    @Override
+    @ReadReplica
+    public CursorPage<TeamUserVO> listTeamsByCursor(TeamQuery teamQuery, String currentUserAccount) {
+        LambdaQueryWrapper<Team> queryWrapper = buildQueryWrapper(teamQuery);
+        String cursor = teamQuery.getCursor();
+        // 至少取一条，否则 hasMore 为 true 时没有最后一条记录可生成游标
+        int pageSize = Math.max(1, teamQuery.getPageSize());
+
+        // 第一页计算一次总数并缓存，后续页只读取缓存中的近似值
+        String totalKey = TEAM_LIST_TOTAL_KEY_PREFIX + getTeamListVersion() + ":"
+                + DigestUtils.md5DigestAsHex(normalizeTeamQuery(teamQuery).getBytes(StandardCharsets.UTF_8));
+        String cachedTotal = stringRedisTemplate.opsForValue().get(totalKey);
+        Long total = cachedTotal == null ? null : Long.valueOf(cachedTotal);
+        if (total == null && StringUtils.isBlank(cursor)) {
+            total = teamMapper.selectCount(queryWrapper);
+            stringRedisTemplate.opsForValue().set(totalKey, String.valueOf(total), TEAM_LIST_CACHE_MINUTES, TimeUnit.MINUTES);
+        }
+
+        // 按 (createTime, id) 倒序，从游标位置之后继续读取，多取一条判断是否还有下一页
+        // createTime 为空的记录排在最后（MySQL 倒序时 NULL 最后），按 id 继续翻页
+        if (StringUtils.isNotBlank(cursor)) {
+            long[] position = CursorUtils.decode(cursor);
+            LocalDateTime lastCreateTime = fromCursorTime(position[0]);
+            long lastId = position[1];
+            if (lastCreateTime == null) {
+                queryWrapper.isNull(Team::getCreateTime).lt(Team::getId, lastId);
+            } else {
+                queryWrapper.and(qw -> qw.lt(Team::getCreateTime, lastCreateTime)
+                        .or(w -> w.eq(Team::getCreateTime, lastCreateTime).lt(Team::getId, lastId))
+                        .or(w -> w.isNull(Team::getCreateTime)));
+            }
+        }
+        queryWrapper.orderByDesc(Team::getCreateTime)
+                .orderByDesc(Team::getId)
+                .last("LIMIT " + (pageSize + 1));
+        List<Team> teamList = teamMapper.selectList(queryWrapper);
+
+        boolean hasMore = teamList.size() > pageSize;
+        if (hasMore) {
+            teamList = teamList.subList(0, pageSize);
+        }
+        List<TeamUserVO> teamUserVOList = teamList.stream()
+                .map(TeamConverter::toTeamUserVO)
+                .collect(Collectors.toList());
+        Set<Long> joinedTeamIds = enrichConcurrently(teamUserVOList, currentUserAccount, teamQuery.getPreviewSize());
+        teamUserVOList.forEach(vo -> vo.setHasJoin(joinedTeamIds.contains(vo.getId())));
+
+        CursorPage<TeamUserVO> cursorPage = new CursorPage<>();
+        cursorPage.setRecords(teamUserVOList);
+        cursorPage.setHasMore(hasMore);
+        cursorPage.setTotal(total);
+        if (hasMore) {
+            Team last = teamList.get(teamList.size() - 1);
+            cursorPage.setNextCursor(CursorUtils.encode(toCursorTime(last.getCreateTime()), last.getId()));
+        }
+        return cursorPage;
+    }
+
+    /**
+     * 游标中的时间按纳秒精度编码（与 DATETIME(6) 的存储值完全一致），空值用 Long.MIN_VALUE 表示
+     */
+    private static long toCursorTime(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime fromCursorTime(long value) {
+        if (value == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L),
+                (int) Math.floorMod(value, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    @Override
+    @ReadReplica
+    public Page<TeamUserVO> listMyJoinTeams(TeamQuery teamQuery, User loginUser) {
+        // 已加入的队伍不按默认的公开状态过滤，传入状态时才过滤；其余条件与队伍列表一致
+        Page<TeamUserVO> page = new Page<>(teamQuery.getPageNum(), teamQuery.getPageSize());
+        boolean fullText = StringUtils.isNotBlank(teamQuery.getSearchText()) && isFullTextSearchable(teamQuery.getSearchText());
+        Page<TeamUserVO> teamUserVOPage = teamMapper.selectJoinedTeamPage(page, loginUser.getId(), teamQuery, fullText);
+        teamUserVOPage.getRecords().forEach(vo -> vo.setHasJoin(true));
+        return teamUserVOPage;
+    }
+
+    @Override
+    @ReadReplica
+    public List<TeamUserVO> recommendTeams(int num, User loginUser) {
+        int size = Math.max(1, Math.min(num, MAX_RECOMMEND_NUM));
+        // 排除已加入的队伍，按内存索引中的标签匹配度排序
+        List<Long> teamIdList = teamRecommendService.recommendTeamIds(
+                loginUser.getTags(), userTeamService.getMemberTeamIds(loginUser.getId()), size);
+        if (teamIdList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Team> teamMap = this.listByIds(teamIdList).stream()
+                .collect(Collectors.toMap(Team::getId, team -> team));
+        List<TeamUserVO> teamUserVOList = teamIdList.stream()
+                .map(teamMap::get)
+                .filter(Objects::nonNull)
+                .map(TeamConverter::toTeamUserVO)
+                .collect(Collectors.toList());
+        enrichConcurrently(teamUserVOList, loginUser.getUserAccount(), 0);
+        return teamUserVOList;
+    }
+
+    @Override
+    @ReadReplica
+    public Page<TeamMemberVO> listTeamMembers(long teamId, PageRequest pageRequest, User loginUser) {
+        Team team = getTeamById(teamId);
+        // 私有队伍只有成员可以查看成员列表
+        if (TeamStatusEnum.PRIVATE.equals(TeamStatusEnum.getEnumByValue(team.getStatus()))
+                && !userTeamService.getMemberTeamIds(loginUser.getId()).contains(teamId)) {
+            throw new BusinessException(ErrorCode.NO_AUTH, "无访问权限");
+        }
+
+        long pageNum = Math.max(pageRequest.getPageNum(), 1);
+        // ZRANGE 的结束下标为负数时从末尾计算，页大小必须为正数，否则会返回整个成员列表
+        long pageSize = Math.max(1, Math.min(pageRequest.getPageSize(), MAX_MEMBER_PAGE_SIZE));
+        Page<TeamMemberVO> page = new Page<>(pageNum, pageSize, userTeamService.countTeamMembers(teamId));
+        List<UserTeam> userTeamList = userTeamService.listTeamMembers(teamId, (pageNum - 1) * pageSize, pageSize);
+        if (userTeamList.isEmpty()) {
+            return page;
+        }
+
+        Map<Long, User> userMap = userService.getUsersByIds(userTeamList.stream()
+                .map(UserTeam::getUserId)
+                .collect(Collectors.toSet()));
+        page.setRecords(userTeamList.stream()
+                .filter(userTeam -> userMap.containsKey(userTeam.getUserId()))
+                .map(userTeam -> {
+                    User user = userMap.get(userTeam.getUserId());
+                    TeamMemberVO teamMemberVO = new TeamMemberVO();
+                    teamMemberVO.setTeamId(teamId);
+                    teamMemberVO.setUserId(user.getId());
+                    teamMemberVO.setUsername(user.getUsername());
+                    teamMemberVO.setAvatarUrl(user.getAvatarUrl());
+                    teamMemberVO.setJoinTime(userTeam.getJoinTime());
+                    return teamMemberVO;
+                })
+                .collect(Collectors.toList()));
+        return page;
+    }
+
+    /**
+     * 查询队伍分页（创建者、加入人数等由调用方填充）
+     */
+    private Page<TeamUserVO> loadTeamList(TeamQuery teamQuery) {
         // 构造查询条件
         LambdaQueryWrapper<Team> queryWrapper = buildQueryWrapper(teamQuery);
 
-        // 查询队伍列表
+        // 查询队伍列表，有关键词时走全文索引并按相关度排序
         Page<Team> page = new Page<>(teamQuery.getPageNum(), teamQuery.getPageSize());
-        Page<Team> teamPage = teamMapper.selectPage(page, queryWrapper);
+        String searchText = teamQuery.getSearchText();
+        Page<Team> teamPage;
+        if (StringUtils.isNotBlank(searchText) && isFullTextSearchable(searchText)) {
+            queryWrapper.eq(Team::getIsDelete, 0);
+            teamPage = teamMapper.selectPageByRelevance(page, searchText, queryWrapper);
+        } else {
+            teamPage = teamMapper.selectPage(page, queryWrapper);
+        }
         if (teamPage.getRecords().isEmpty()) {
             return new Page<>();
         }
 
-        log.info("输出的Page.Records => {}", teamPage.getRecords());
-        log.info("输出的Page => {}", teamPage);
-
         // 转换 Team -> TeamUserVO
         List<TeamUserVO> teamUserVOList = teamPage.getRecords().stream()
-                .map(this::convertToTeamUserVO)
+                .map(TeamConverter::toTeamUserVO)
                 .collect(Collectors.toList());
 
-        log.info("输出的List<TeamUserVO> => {}", teamUserVOList);
+        return new Page<TeamUserVO>(teamPage.getCurrent(), teamPage.getSize(), teamPage.getTotal())
+                .setRecords(teamUserVOList);
+    }
 
-        // 填充创建者信息
-        enrichCreatorInfo(teamUserVOList);
+    @SuppressWarnings("unchecked")
+    private Page<TeamUserVO> getCachedTeamList(String cacheKey) {
+        try {
+            return (Page<TeamUserVO>) redisTemplate.opsForValue().get(cacheKey);
+        } catch (Exception e) {
+            log.error("redis get key error", e);
+            return null;
+        }
+    }
 
-        log.info("填充创建者信息以后 => {}", teamUserVOList);
+    /**
+     * 归一化查询条件生成缓存 key，key 中带上队伍数据版本号，数据变更时整体失效
+     */
+    private String buildTeamListCacheKey(TeamQuery teamQuery) {
+        String normalizedQuery = normalizeTeamQuery(teamQuery) + "|" + teamQuery.getPageNum() + "|" + teamQuery.getPageSize()
+                + "|" + teamQuery.getPreviewSize();
+        return TEAM_LIST_KEY_PREFIX + getTeamListVersion() + ":"
+                + DigestUtils.md5DigestAsHex(normalizedQuery.getBytes(StandardCharsets.UTF_8));
+    }
 
-        // 调用辅助方法：统计当前用户是否已加入队伍和各队伍的加入人数
-        augmentTeamUserVOs(teamUserVOList, currentUserAccount);
+    /**
+     * 归一化过滤条件（不含分页参数）
+     */
+    private String normalizeTeamQuery(TeamQuery teamQuery) {
+        List<Long> idList = Optional.ofNullable(teamQuery.getIdList()).orElse(Collections.emptyList()).stream()
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        return String.join("|",
+                Objects.toString(teamQuery.getId(), ""),
+                idList.toString(),
+                StringUtils.isBlank(teamQuery.getSearchText()) ? "" : teamQuery.getSearchText(),
+                StringUtils.isBlank(teamQuery.getName()) ? "" : teamQuery.getName(),
+                StringUtils.isBlank(teamQuery.getDescription()) ? "" : teamQuery.getDescription(),
+                Optional.ofNullable(teamQuery.getMaxNum()).filter(num -> num > 0).map(String::valueOf).orElse(""),
+                Optional.ofNullable(teamQuery.getUserId()).filter(id -> id > 0).map(String::valueOf).orElse(""),
+                String.valueOf(resolveQueryStatus(teamQuery).getValue()));
+    }
 
-        log.info("填充以后 => {}", teamUserVOList);
+    private String getTeamListVersion() {
+        try {
+            return Objects.toString(stringRedisTemplate.opsForValue().get(TEAM_LIST_VERSION_KEY), "0");
+        } catch (Exception e) {
+            log.error("redis get key error", e);
+            return "0";
+        }
+    }
 
-        return new Page<TeamUserVO>(teamPage.getCurrent(), teamPage.getSize(), teamPage.getTotal())
-                .setRecords(teamUserVOList);
+    /**
+     * 队伍数据变更后递增版本号，旧版本的缓存自然过期，无需扫描删除（事务提交后执行）
+     */
+    private void bumpTeamListVersion() {
+        runAfterCommit(() -> stringRedisTemplate.opsForValue().increment(TEAM_LIST_VERSION_KEY));
+    }
+
+    /**
+     * 记录队伍过期时间，供过期清理任务只处理到期的队伍（事务提交后执行）
+     */
+    private void scheduleTeamExpire(long teamId, LocalDateTime expireTime) {
+        if (expireTime == null) {
+            return;
+        }
+        long expireMillis = expireTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        runAfterCommit(() -> stringRedisTemplate.opsForZSet().add(TEAM_EXPIRE_KEY, String.valueOf(teamId), expireMillis));
+    }
+
+    private void cancelTeamExpire(Collection<Long> teamIdList) {
+        Object[] members = teamIdList.stream().map(String::valueOf).toArray();
+        if (members.length == 0) {
+            return;
+        }
+        runAfterCommit(() -> stringRedisTemplate.opsForZSet().remove(TEAM_EXPIRE_KEY, members));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 处理队伍状态，默认返回公开队伍
+     */
+    private TeamStatusEnum resolveQueryStatus(TeamQuery teamQuery) {
+        TeamStatusEnum statusEnum = Optional.ofNullable(TeamStatusEnum.getEnumByValue(teamQuery.getStatus()))
+                .orElse(TeamStatusEnum.PUBLIC);
+        if (TeamStatusEnum.PRIVATE.equals(statusEnum)) {
+            throw new BusinessException(ErrorCode.NO_AUTH);
+        }
+        return statusEnum;
+    }
+
+    private static boolean isFullTextSearchable(String searchText) {
+        return searchText.trim().length() >= NGRAM_TOKEN_SIZE;
     }
 
     private LambdaQueryWrapper<Team> buildQueryWrapper(TeamQuery teamQuery) {
         LambdaQueryWrapper<Team> queryWrapper = new LambdaQueryWrapper<>();
         Optional.ofNullable(teamQuery.getId()).ifPresent(id -> queryWrapper.eq(Team::getId, id));
         Optional.ofNullable(teamQuery.getIdList()).filter(CollectionUtils::isNotEmpty).ifPresent(ids -> queryWrapper.in(Team::getId, ids));
-        Optional.ofNullable(teamQuery.getSearchText()).filter(StringUtils::isNotBlank).ifPresent(text ->
-                queryWrapper.and(qw -> qw.like(Team::getName, text).or().like(Team::getDescription, text))
-        );
+        Optional.ofNullable(teamQuery.getSearchText()).filter(StringUtils::isNotBlank).ifPresent(text -> {
+            if (isFullTextSearchable(text)) {
+                queryWrapper.apply("MATCH(name, description) AGAINST({0} IN NATURAL LANGUAGE MODE)", text);
+            } else {
+                queryWrapper.and(qw -> qw.like(Team::getName, text).or().like(Team::getDescription, text));
+            }
+        });
         Optional.ofNullable(teamQuery.getName()).filter(StringUtils::isNotBlank).ifPresent(name -> queryWrapper.like(Team::getName, name));
         Optional.ofNullable(teamQuery.getDescription()).filter(StringUtils::isNotBlank).ifPresent(desc -> queryWrapper.like(Team::getDescription, desc));
         Optional.ofNullable(teamQuery.getMaxNum()).filter(num -> num > 0).ifPresent(num -> queryWrapper.eq(Team::getMaxNum, num));
         Optional.ofNullable(teamQuery.getUserId()).filter(id -> id > 0).ifPresent(id -> queryWrapper.eq(Team::getUserId, id));
 
         // 处理队伍状态，默认返回公开队伍
-        TeamStatusEnum statusEnum = Optional.ofNullable(TeamStatusEnum.getEnumByValue(teamQuery.getStatus()))
-                .orElse(TeamStatusEnum.PUBLIC);
-        if (TeamStatusEnum.PRIVATE.equals(statusEnum)) {
-            throw new BusinessException(ErrorCode.NO_AUTH);
-        }
-        queryWrapper.eq(Team::getStatus, statusEnum.getValue());
-
-        // 只显示未过期的队伍
-        queryWrapper.and(qw -> qw.gt(Team::getExpireTime, LocalDateTime.now()).or().isNull(Team::getExpireTime));
+        queryWrapper.eq(Team::getStatus, resolveQueryStatus(teamQuery).getValue());
 
         return queryWrapper;
     }
 
-    private TeamUserVO convertToTeamUserVO(Team team) {
-        TeamUserVO vo = new TeamUserVO();
-        BeanUtils.copyProperties(team, vo);
-        return vo;
-    }
-
-    private void enrichCreatorInfo(List<TeamUserVO> teamUserVOList) {
+    /**
+     * 并发查询创建者信息、加入人数和当前用户加入的队伍，耗时取决于最慢的一个查询
+     * 创建者和加入人数直接填充，当前用户加入的队伍作为返回值由调用方在写缓存后叠加（currentUserAccount 为空时不查询）
+     */
+    private Set<Long> enrichConcurrently(List<TeamUserVO> teamUserVOList, String currentUserAccount, int previewSize) {
+        if (CollectionUtils.isEmpty(teamUserVOList)) {
+            return Collections.emptySet();
+        }
         Set<Long> creatorIds = teamUserVOList.stream()
                 .map(TeamUserVO::getUserId)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
-        if (creatorIds.isEmpty()) {
-            return;
-        }
-        Map<Long, User> creatorMap = userService.getUsersByIds(creatorIds);
+        List<Long> teamIdList = teamUserVOList.stream().map(TeamUserVO::getId).collect(Collectors.toList());
+
+        CompletableFuture<Map<Long, User>> creatorFuture = CompletableFuture.supplyAsync(
+                () -> userService.getUsersByIds(creatorIds), teamQueryExecutor);
+        CompletableFuture<Map<Long, Long>> joinCountFuture = CompletableFuture.supplyAsync(
+                () -> userTeamService.countByTeamIds(teamIdList), teamQueryExecutor);
+        CompletableFuture<Set<Long>> joinedFuture = currentUserAccount != null
+                ? CompletableFuture.supplyAsync(() -> getCurrentUserTeamIds(currentUserAccount), teamQueryExecutor)
+                : CompletableFuture.completedFuture(Collections.emptySet());
+        CompletableFuture<Map<Long, List<TeamMemberVO>>> previewFuture = previewSize > 0
+                ? CompletableFuture.supplyAsync(() -> userTeamService.getMemberPreviews(teamIdList, previewSize), teamQueryExecutor)
+                : CompletableFuture.completedFuture(Collections.emptyMap());
+        awaitAll(creatorFuture, joinCountFuture, joinedFuture, previewFuture);
+
+        // 填充创建者信息
+        Map<Long, User> creatorMap = creatorFuture.join();
         teamUserVOList.forEach(vo -> {
             if (vo.getUserId() != null && creatorMap.containsKey(vo.getUserId())) {
                 vo.setCreateUser(userService.getSafetyUser(creatorMap.get(vo.getUserId())));
             }
         });
+
+        // 加入人数统计
+        Map<Long, Long> joinCountMap = joinCountFuture.join();
+        teamUserVOList.forEach(vo -> vo.setHasJoinNum(joinCountMap.getOrDefault(vo.getId(), 0L).intValue()));
+
+        // 成员预览
+        if (previewSize > 0) {
+            Map<Long, List<TeamMemberVO>> previewMap = previewFuture.join();
+            teamUserVOList.forEach(vo -> vo.setMemberPreview(previewMap.getOrDefault(vo.getId(), new ArrayList<>())));
+        }
+
+        return joinedFuture.join();
     }
 
-    // 单管用户是否加入队伍 & 加入人数统计
-    private void augmentTeamUserVOs(List<TeamUserVO> teamUserVOList, String currentUserAccount) {
-        List<Long> teamIdList = teamUserVOList.stream().map(TeamUserVO::getId).collect(Collectors.toList());
-        if (CollectionUtils.isEmpty(teamIdList)) {
-            return;
+    /**
+     * 等待所有查询完成，超过 ENRICH_TIMEOUT_MILLIS 则放弃
+     * <p>
+     * cancel 只能让还在排队的任务不再执行，不会中断正在执行的 JDBC 调用；
+     * 已发出的查询由 Mapper 上的语句超时（UserTeamMapper.LOOKUP_TIMEOUT_SECONDS）终止并归还连接
+     */
+    private void awaitAll(CompletableFuture<?>... futures) {
+        try {
+            CompletableFuture.allOf(futures).get(ENRICH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Arrays.stream(futures).forEach(future -> future.cancel(false));
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询队伍超时");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询队伍失败");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "查询队伍失败");
         }
+    }
+
+    // 当前用户加入的队伍
+    private Set<Long> getCurrentUserTeamIds(String currentUserAccount) {
         User currentUser = userService.getUserByUserAccount(currentUserAccount);
         if (currentUser == null) {
-            return;
+            return Collections.emptySet();
         }
-        Long currentUserId = currentUser.getId();
-
-        // 查询当前用户加入的队伍
-        Set<Long> joinedTeamIds = userTeamService.getJoinedTeamIds(currentUserId, teamIdList);
-        teamUserVOList.forEach(vo -> vo.setHasJoin(joinedTeamIds.contains(vo.getId())));
-
-        // 统计每个队伍的加入人数
-        Map<Long, Long> joinCountMap = userTeamService.countByTeamIds(teamIdList);
-        teamUserVOList.forEach(vo -> vo.setHasJoinNum(joinCountMap.getOrDefault(vo.getId(), 0L).intValue()));
+        return userTeamService.getMemberTeamIds(currentUser.getId());
     }
 
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean joinTeam(TeamJoinRequest teamJoinRequest, User loginUser) {
 
+        Team team = checkJoinable(teamJoinRequest);
+
+        long userId = loginUser.getId();
+        long teamId = team.getId();
+
+        // 锁定用户行，同一用户并发加入不同队伍时串行执行，已加入数量按数据库中的实际记录校验
+        userMapper.lockUsers(List.of(userId));
+        List<Long> joinedTeamIds = listJoinedTeamIds(List.of(userId)).getOrDefault(userId, Collections.emptyList());
+        if (joinedTeamIds.size() >= 5) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加入队伍数量过多");
+        }
+
+        // 校验用户是否已加入该队伍（并发重复加入由 (user_id, team_id) 唯一索引兜底）
+        if (joinedTeamIds.contains(teamId)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "已加入该队伍");
+        }
+
+        // 条件更新占用一个名额，队伍已满时影响行数为 0，无需分布式锁
+        if (teamMapper.increaseMemberCount(teamId, 1) == 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "队伍已满");
+        }
+
+        // 保存用户-队伍关联记录，失败时事务回滚占用的名额
+        try {
+            userTeamService.saveMembers(teamId, List.of(userId));
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "已加入该队伍");
+        }
+        userTeamService.evictMemberTeamIds(List.of(userId));
+        userTeamService.evictTeamMembers(List.of(teamId));
+        bumpTeamListVersion();
+        runAfterCommit(() -> teamRecommendService.onMembersJoined(teamId, List.of(userId)));
+        return true;
+    }
+
+    @Override
+    public Team checkJoinable(TeamJoinRequest teamJoinRequest) {
         Team team = getTeamById(teamJoinRequest.getTeamId());
 
         LocalDateTime expireTime = team.getExpireTime();
@@ -265,50 +698,154 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "密码错误");
             }
         }
+        return team;
+    }
 
-        long userId = loginUser.getId();
-        long teamId = team.getId();
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Map<Long, String> joinTeamInBatch(long teamId, List<Long> userIdList) {
+        Map<Long, String> failedMap = new LinkedHashMap<>();
+        Team team = getTeamById(teamId);
+        LocalDateTime expireTime = team.getExpireTime();
+        if (expireTime != null && expireTime.isBefore(LocalDateTime.now())) {
+            userIdList.forEach(userId -> failedMap.put(userId, "队伍已过期"));
+            return failedMap;
+        }
 
-        // 只有一个线程能获取到锁
-        RLock lock = redissonClient.getLock("zhiyin:join_team:" + teamId);
-        try {
-            if (!lock.tryLock(0, 10, TimeUnit.SECONDS)) {
-                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加入队伍超时");
-            }
-            // 校验该用户已加入队伍数量
-            long joinCount = userTeamService.count(new LambdaQueryWrapper<UserTeam>()
-                    .eq(UserTeam::getUserId, userId));
-            if(joinCount >= 5){
-                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加入队伍数量过多");
+        // 锁定这批用户行后一次查询得到已加入的全部队伍，用于数量限制和重复加入校验
+        List<Long> distinctIdList = userIdList.stream().distinct().collect(Collectors.toList());
+        userMapper.lockUsers(distinctIdList);
+        Map<Long, List<Long>> joinedTeamMap = listJoinedTeamIds(distinctIdList);
+
+        // 按排队顺序分配剩余名额
+        int remaining = team.getMaxNum() - Optional.ofNullable(team.getMemberCount()).orElse(0);
+        List<Long> acceptedIdList = new ArrayList<>();
+        for (Long userId : distinctIdList) {
+            List<Long> joinedTeamIds = joinedTeamMap.getOrDefault(userId, Collections.emptyList());
+            if (joinedTeamIds.contains(teamId)) {
+                failedMap.put(userId, "已加入该队伍");
+            } else if (joinedTeamIds.size() >= 5) {
+                failedMap.put(userId, "加入队伍数量过多");
+            } else if (acceptedIdList.size() >= remaining) {
+                failedMap.put(userId, "队伍已满");
+            } else {
+                acceptedIdList.add(userId);
             }
+        }
+        if (acceptedIdList.isEmpty()) {
+            return failedMap;
+        }
 
-            // 校验用户是否已加入该队伍
-            long alreadyJoined = userTeamService.count(new LambdaQueryWrapper<UserTeam>()
-                    .eq(UserTeam::getUserId, userId)
-                    .eq(UserTeam::getTeamId, teamId));
-            if(alreadyJoined > 0){
-                throw new BusinessException(ErrorCode.PARAMS_ERROR, "已加入该队伍");
+        // 整批占用名额；若名额已被同步加入的请求抢占，则逐个占用
+        if (teamMapper.increaseMemberCount(teamId, acceptedIdList.size()) == 0) {
+            Iterator<Long> iterator = acceptedIdList.iterator();
+            boolean full = false;
+            while (iterator.hasNext()) {
+                Long userId = iterator.next();
+                if (full || teamMapper.increaseMemberCount(teamId, 1) == 0) {
+                    full = true;
+                    failedMap.put(userId, "队伍已满");
+                    iterator.remove();
+                }
             }
+            if (acceptedIdList.isEmpty()) {
+                return failedMap;
+            }
+        }
+        try {
+            userTeamService.saveMembers(teamId, acceptedIdList);
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "已加入该队伍");
+        }
+        userTeamService.evictMemberTeamIds(acceptedIdList);
+        userTeamService.evictTeamMembers(List.of(teamId));
+        bumpTeamListVersion();
+        runAfterCommit(() -> teamRecommendService.onMembersJoined(teamId, acceptedIdList));
+        return failedMap;
+    }
 
-            // 校验队伍是否已满
-            long teamJoinCount = countTeamUserByTeamId(teamId);
-            if (teamJoinCount >= team.getMaxNum()) throw new BusinessException(ErrorCode.PARAMS_ERROR, "队伍已满");
+    /**
+     * 从数据库查询用户已加入的队伍 id（不经过缓存，加入队伍时在用户行锁内使用）
+     */
+    private Map<Long, List<Long>> listJoinedTeamIds(List<Long> userIdList) {
+        return userTeamService.list(new LambdaQueryWrapper<UserTeam>()
+                        .select(UserTeam::getUserId, UserTeam::getTeamId)
+                        .in(UserTeam::getUserId, userIdList))
+                .stream()
+                .collect(Collectors.groupingBy(UserTeam::getUserId,
+                        Collectors.mapping(UserTeam::getTeamId, Collectors.toList())));
+    }
 
-            // 构造并保存用户-队伍关联记录
-            UserTeam userTeam = new UserTeam();
-            userTeam.setUserId(userId);
-            userTeam.setTeamId(teamId);
-            userTeam.setJoinTime(LocalDateTime.now());
-            return userTeamService.save(userTeam);
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean reconcileMemberCount(long teamId) {
+        // 先锁定队伍行：正在进行的加入、退出提交后才计数，计数期间也不会有新的名额占用
+        if (teamMapper.lockTeam(teamId) == null) {
+            return false;
+        }
+        return teamMapper.reconcileMemberCount(teamId) > 0;
+    }
 
-        } catch (InterruptedException e) {
-            log.error("joinTeam error", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加入队伍失败");
-        } finally {
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+    @Override
+    public List<Long> listDueExpiredTeamIds(int limit) {
+        long now = System.currentTimeMillis();
+        Set<String> members = stringRedisTemplate.opsForZSet().rangeByScore(TEAM_EXPIRE_KEY, 0, now, 0, limit);
+        if (members == null) {
+            return Collections.emptyList();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> listExpiredTeamIdsFromDb(long afterId, int limit) {
+        return this.list(new LambdaQueryWrapper<Team>()
+                        .select(Team::getId)
+                        .gt(Team::getId, afterId)
+                        .le(Team::getExpireTime, LocalDateTime.now())
+                        .orderByAsc(Team::getId)
+                        .last("LIMIT " + limit))
+                .stream()
+                .map(Team::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int removeExpiredTeams(List<Long> teamIdList) {
+        if (CollectionUtils.isEmpty(teamIdList)) {
+            return 0;
+        }
+        // 以数据库为准再确认一次（过期时间可能已被修改），其余的直接移出过期索引，漏掉的由每日全表补偿兜底
+        List<Long> expiredIdList = this.list(new LambdaQueryWrapper<Team>()
+                        .select(Team::getId)
+                        .in(Team::getId, teamIdList)
+                        .le(Team::getExpireTime, LocalDateTime.now()))
+                .stream()
+                .map(Team::getId)
+                .collect(Collectors.toList());
+        cancelTeamExpire(teamIdList);
+        if (expiredIdList.isEmpty()) {
+            return 0;
         }
+
+        List<Long> memberIdList = userTeamService.list(new LambdaQueryWrapper<UserTeam>()
+                        .select(UserTeam::getUserId)
+                        .in(UserTeam::getTeamId, expiredIdList))
+                .stream()
+                .map(UserTeam::getUserId)
+                .distinct()
+                .collect(Collectors.toList());
+        userTeamService.remove(new LambdaQueryWrapper<UserTeam>().in(UserTeam::getTeamId, expiredIdList));
+        this.update(new LambdaUpdateWrapper<Team>()
+                .in(Team::getId, expiredIdList)
+                .set(Team::getMemberCount, 0));
+        this.removeByIds(expiredIdList);
+
+        userTeamService.evictMemberTeamIds(memberIdList);
+        userTeamService.evictTeamMembers(expiredIdList);
+        bumpTeamListVersion();
+        runAfterCommit(() -> teamRecommendService.onTeamsRemoved(expiredIdList));
+        return expiredIdList.size();
     }
 
     @Override
@@ -341,34 +878,30 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         if (teamHasJoinNum == 1) {
             // 删除队伍
             this.removeById(teamId);
+            cancelTeamExpire(List.of(teamId));
+            runAfterCommit(() -> teamRecommendService.onTeamsRemoved(List.of(teamId)));
         } else {
+            runAfterCommit(() -> teamRecommendService.onMemberQuit(teamId, loginUserId));
             // 如果当前用户为队长， 则需要转移队长身份
             if (team.getUserId() == loginUserId) {
-                // 把队伍转移给最早加入的用户
-                // 1. 查询已加入队伍的所有用户和加入时间
-                LambdaQueryWrapper<UserTeam> teamJoinWrapper = new LambdaQueryWrapper<>();
-                teamJoinWrapper.eq(UserTeam::getTeamId, teamId)
-                        .orderByAsc(UserTeam::getJoinTime)
-                        .last("limit 2");
-
-                List<UserTeam> userTeamList = userTeamService.list(teamJoinWrapper);
-                if (CollectionUtils.isEmpty(userTeamList) || userTeamList.size() <= 1) {
-                    throw new BusinessException(ErrorCode.SYSTEM_ERROR, "队伍数据异常");
-                }
-                // 更新当前队伍的队长 第二个加入的用户
-                UserTeam nextUserTeam = userTeamList.get(1);
-                Long nextTeamLeaderId = nextUserTeam.getUserId();
-
-                Team updateTeam = new Team();
-                updateTeam.setId(teamId);
-                updateTeam.setUserId(nextTeamLeaderId);
-                boolean result = this.updateById(updateTeam);
+                // 把队伍转移给除自己外最早加入的用户（事务内查库，不读可能过期的成员缓存）
+                Long nextTeamLeaderId = Optional.ofNullable(userTeamService.getNextLeaderId(teamId, loginUserId))
+                        .orElseThrow(() -> new BusinessException(ErrorCode.SYSTEM_ERROR, "队伍数据异常"));
+
+                // 只更新队长字段，避免实体默认的过期时间覆盖原值
+                boolean result = this.update(new LambdaUpdateWrapper<Team>()
+                        .eq(Team::getId, teamId)
+                        .set(Team::getUserId, nextTeamLeaderId));
                 if (!result) {
                     throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新队伍队长失败");
                 }
             }
         }
         // 删除当前用户与队伍的关联记录
+        teamMapper.decreaseMemberCount(teamId);
+        userTeamService.evictMemberTeamIds(List.of(loginUserId));
+        userTeamService.evictTeamMembers(List.of(teamId));
+        bumpTeamListVersion();
         return userTeamService.remove(queryWrapper);
     }
 
@@ -385,12 +918,26 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         // 移除所有加入队伍的关联信息
         LambdaQueryWrapper<UserTeam> userTeamQueryWrapper = new LambdaQueryWrapper<>();
         userTeamQueryWrapper.eq(UserTeam::getTeamId, teamId);
+        List<Long> memberIdList = userTeamService.list(new LambdaQueryWrapper<UserTeam>()
+                        .select(UserTeam::getUserId)
+                        .eq(UserTeam::getTeamId, teamId))
+                .stream()
+                .map(UserTeam::getUserId)
+                .collect(Collectors.toList());
+        userTeamService.evictMemberTeamIds(memberIdList);
+        userTeamService.evictTeamMembers(List.of(teamId));
+        bumpTeamListVersion();
 
         boolean result = userTeamService.remove(userTeamQueryWrapper);
         if (!result) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除队伍关联信息失败");
         }
+        this.update(new LambdaUpdateWrapper<Team>()
+                .eq(Team::getId, teamId)
+                .set(Team::getMemberCount, 0));
         // 删除队伍
+        cancelTeamExpire(List.of(teamId));
+        runAfterCommit(() -> teamRecommendService.onTeamsRemoved(List.of(teamId)));
         return this.removeById(teamId);
     }
 
@@ -22,7 +22,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String userAccount) throws UsernameNotFoundException {
-        User user = userService.getUserByUserAccount(userAccount);
+        User user = userService.getAuthUserByUserAccount(userAccount);
         log.info("loadUserByUserName => {}", user);
         if (user == null) {
             throw new UsernameNotFoundException("用户不存在");
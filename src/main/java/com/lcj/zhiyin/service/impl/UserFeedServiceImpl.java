@@ -0,0 +1,219 @@
+package com.lcj.zhiyin.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lcj.zhiyin.common.CursorPage;
+import com.lcj.zhiyin.config.UserFeedProperties;
+import com.lcj.zhiyin.datasource.ReadReplica;
+import com.lcj.zhiyin.mapper.UserMapper;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.service.UserFeedService;
+import com.lcj.zhiyin.service.UserService;
+import com.lcj.zhiyin.utils.CursorUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 用户推荐流服务实现类
+ * <p>
+ * 推荐流按 标签相似度（Jaccard）+ 候选人活跃度 打分，只为与用户标签有交集的候选人计算，
+ * 每个用户保留得分最高的若干人写入有序集合；全局热门列表按活跃度排序。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserFeedServiceImpl implements UserFeedService {
+
+    private static final String FEED_KEY_PREFIX = "zhiyin:user:feed:";
+
+    private static final String POPULAR_KEY = "zhiyin:user:feed:popular";
+
+    /**
+     * 每个 pipeline 写入的推荐流数量
+     */
+    private static final int WRITE_BATCH_SIZE = 100;
+
+    private final UserMapper userMapper;
+    private final UserService userService;
+    private final StringRedisTemplate redisTemplate;
+    private final UserFeedProperties userFeedProperties;
+
+    @Override
+    @ReadReplica
+    public CursorPage<User> getFeed(long userId, String cursor, int pageSize) {
+        String key = FEED_KEY_PREFIX + userId;
+        Long total = redisTemplate.opsForZSet().zCard(key);
+        if (total == null || total == 0) {
+            key = POPULAR_KEY;
+            total = redisTemplate.opsForZSet().zCard(key);
+        }
+
+        // 游标为 (下一条的位置, 上一页最后一个 id)，推荐流在翻页期间重新生成时按上一页最后一个 id 重新定位
+        long start = 0;
+        if (StringUtils.isNotBlank(cursor)) {
+            long[] decoded = CursorUtils.decode(cursor);
+            Long rank = redisTemplate.opsForZSet().reverseRank(key, String.valueOf(decoded[1]));
+            start = rank != null ? rank + 1 : decoded[0];
+        }
+        // 多取一条判断是否还有下一页
+        Set<String> members = redisTemplate.opsForZSet().reverseRange(key, start, start + pageSize);
+        List<Long> idList = members == null ? new ArrayList<>()
+                : members.stream().map(Long::valueOf).collect(Collectors.toList());
+        boolean hasMore = idList.size() > pageSize;
+        if (hasMore) {
+            idList = idList.subList(0, pageSize);
+        }
+
+        CursorPage<User> cursorPage = new CursorPage<>();
+        // 热门列表中可能有自己
+        cursorPage.setRecords(userService.getSafetyUsersByIds(idList).stream()
+                .filter(user -> user.getId() != userId)
+                .collect(Collectors.toList()));
+        cursorPage.setHasMore(hasMore);
+        cursorPage.setTotal(total);
+        if (hasMore) {
+            cursorPage.setNextCursor(CursorUtils.encode(start + pageSize, idList.get(idList.size() - 1)));
+        }
+        return cursorPage;
+    }
+
+    @Override
+    @ReadReplica
+    public void rebuildFeeds() {
+        long start = System.currentTimeMillis();
+        Map<Long, Long> activeUsers = userService.listActiveUsers(
+                userFeedProperties.getActiveWindow(), userFeedProperties.getActiveUserLimit());
+
+        // 只查询 id 和 tags，建立 标签 -> 用户 的倒排索引
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(User::getId, User::getTags)
+                .isNotNull(User::getTags)
+                .eq(User::getUserStatus, 0);
+        Map<Long, Set<String>> userTagMap = new HashMap<>();
+        Map<String, List<Long>> tagIndex = new HashMap<>();
+        for (User user : userMapper.selectList(queryWrapper)) {
+            Set<String> tagSet = normalizeTags(user.getTags());
+            if (tagSet.isEmpty()) {
+                continue;
+            }
+            userTagMap.put(user.getId(), tagSet);
+            tagSet.forEach(tag -> tagIndex.computeIfAbsent(tag, key -> new ArrayList<>()).add(user.getId()));
+        }
+
+        Map<Long, Double> activityMap = new HashMap<>();
+        activeUsers.forEach((userId, lastLoginTime) -> activityMap.put(userId, activityOf(lastLoginTime, start)));
+
+        Map<String, Map<Long, Double>> feedMap = new LinkedHashMap<>();
+        feedMap.put(POPULAR_KEY, topN(activityMap, userFeedProperties.getPopularSize()));
+        int built = 0;
+        for (Long userId : activeUsers.keySet()) {
+            Set<String> tagSet = userTagMap.get(userId);
+            // 没有标签的用户不生成推荐流，读取时使用热门列表
+            if (tagSet == null) {
+                continue;
+            }
+            feedMap.put(FEED_KEY_PREFIX + userId, scoreCandidates(userId, tagSet, userTagMap, tagIndex, activityMap));
+            built++;
+            if (feedMap.size() >= WRITE_BATCH_SIZE) {
+                writeFeeds(feedMap);
+                feedMap.clear();
+            }
+        }
+        if (!feedMap.isEmpty()) {
+            writeFeeds(feedMap);
+        }
+        log.info("推荐流生成完成, 活跃用户数 => {}, 生成数 => {}, 耗时 => {}ms",
+                activeUsers.size(), built, System.currentTimeMillis() - start);
+    }
+
+    private Map<Long, Double> scoreCandidates(long userId, Set<String> tagSet, Map<Long, Set<String>> userTagMap,
+                                              Map<String, List<Long>> tagIndex, Map<Long, Double> activityMap) {
+        // 先统计每个候选人的共同标签数
+        Map<Long, Integer> commonCountMap = new HashMap<>();
+        for (String tag : tagSet) {
+            for (Long candidateId : tagIndex.getOrDefault(tag, Collections.emptyList())) {
+                if (candidateId != userId) {
+                    commonCountMap.merge(candidateId, 1, Integer::sum);
+                }
+            }
+        }
+        double tagWeight = userFeedProperties.getTagWeight();
+        Map<Long, Double> scoreMap = new HashMap<>(commonCountMap.size());
+        commonCountMap.forEach((candidateId, commonCount) -> {
+            int unionCount = tagSet.size() + userTagMap.get(candidateId).size() - commonCount;
+            double similarity = (double) commonCount / unionCount;
+            double activity = activityMap.getOrDefault(candidateId, 0D);
+            scoreMap.put(candidateId, tagWeight * similarity + (1 - tagWeight) * activity);
+        });
+        return topN(scoreMap, userFeedProperties.getFeedSize());
+    }
+
+    /**
+     * 用新集合整体替换旧推荐流：先写临时 key 再 RENAME，读取方不会看到写了一半的集合
+     */
+    private void writeFeeds(Map<String, Map<Long, Double>> feedMap) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                feedMap.forEach((key, scoreMap) -> {
+                    if (scoreMap.isEmpty()) {
+                        redisOperations.delete(key);
+                        return;
+                    }
+                    String tempKey = key + ":tmp";
+                    Set<ZSetOperations.TypedTuple<String>> tuples = scoreMap.entrySet().stream()
+                            .map(entry -> ZSetOperations.TypedTuple.of(String.valueOf(entry.getKey()), entry.getValue()))
+                            .collect(Collectors.toSet());
+                    redisOperations.delete(tempKey);
+                    redisOperations.opsForZSet().add(tempKey, tuples);
+                    redisOperations.expire(tempKey, userFeedProperties.getTtl());
+                    redisOperations.rename(tempKey, key);
+                });
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 活跃度按距上次登录的时间指数衰减，取值 (0, 1]
+     */
+    private double activityOf(long lastLoginTime, long now) {
+        double halfLives = (double) Math.max(0, now - lastLoginTime) / userFeedProperties.getActivityHalfLife().toMillis();
+        return Math.pow(0.5, halfLives);
+    }
+
+    private static Map<Long, Double> topN(Map<Long, Double> scoreMap, int n) {
+        // 小顶堆只保留得分最高的 n 个
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> entry : scoreMap.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > n) {
+                heap.poll();
+            }
+        }
+        Map<Long, Double> result = new HashMap<>(heap.size());
+        heap.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    private static Set<String> normalizeTags(List<String> tags) {
+        if (CollectionUtils.isEmpty(tags)) {
+            return Collections.emptySet();
+        }
+        return tags.stream()
+                .filter(StringUtils::isNotBlank)
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,504 @@
+package com.lcj.zhiyin.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lcj.zhiyin.common.ErrorCode;
+import com.lcj.zhiyin.exception.BusinessException;
+import com.lcj.zhiyin.mapper.UserMapper;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.model.enums.UserImportStatusEnum;
+import com.lcj.zhiyin.model.vo.UserImportVO;
+import com.lcj.zhiyin.service.UserImportService;
+import com.lcj.zhiyin.service.UserService;
+import com.lcj.zhiyin.utils.AccountUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 批量导入用户服务实现类
+ * <p>
+ * 上传文件先落到临时文件，由导入线程逐行流式读取，每 {@value #CHUNK_SIZE} 行一批：
+ * 校验 -> 一次 IN 查询去重 -> 在有界线程池中并行计算 BCrypt -> saveBatch 批量插入。
+ * 连接串开启 rewriteBatchedStatements=true 时，MySQL 驱动会把批量插入改写为多值 INSERT。
+ * 进度和逐行错误记录在 Redis，通过任务 id 查询。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String IMPORT_KEY_PREFIX = "zhiyin:user:import:";
+
+    private static final long IMPORT_TTL_HOURS = 24;
+
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * 最多记录的逐行错误数
+     */
+    private static final int MAX_ERRORS = 1000;
+
+    private static final String FORMAT_CSV = "csv";
+
+    private static final String FORMAT_NDJSON = "ndjson";
+
+    private final UserService userService;
+    private final UserMapper userMapper;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor userImportExecutor;
+    private final ThreadPoolTaskExecutor passwordHashExecutor;
+
+    @Override
+    public String startImport(MultipartFile file, String format) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "导入文件为空");
+        }
+        String resolvedFormat = resolveFormat(format, file.getOriginalFilename());
+
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("user-import-", "." + resolvedFormat);
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            log.error("保存导入文件失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "保存导入文件失败");
+        }
+
+        String importId = UUID.randomUUID().toString().replace("-", "");
+        String importKey = IMPORT_KEY_PREFIX + importId;
+        Map<String, String> progressMap = new HashMap<>();
+        progressMap.put("status", String.valueOf(UserImportStatusEnum.RUNNING.getValue()));
+        progressMap.put("processed", "0");
+        progressMap.put("imported", "0");
+        progressMap.put("duplicated", "0");
+        progressMap.put("failed", "0");
+        redisTemplate.opsForHash().putAll(importKey, progressMap);
+        redisTemplate.expire(importKey, IMPORT_TTL_HOURS, TimeUnit.HOURS);
+
+        try {
+            userImportExecutor.execute(() -> runImport(importId, tempFile, resolvedFormat));
+        } catch (TaskRejectedException e) {
+            deleteQuietly(tempFile);
+            redisTemplate.delete(importKey);
+            throw new BusinessException(ErrorCode.FORBIDDEN, "导入任务过多，请稍后再试");
+        }
+        return importId;
+    }
+
+    @Override
+    public UserImportVO getImportProgress(String importId) {
+        String importKey = IMPORT_KEY_PREFIX + importId;
+        Map<Object, Object> progressMap = redisTemplate.opsForHash().entries(importKey);
+        if (progressMap.isEmpty()) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "导入任务不存在或已过期");
+        }
+        UserImportVO userImportVO = new UserImportVO();
+        userImportVO.setImportId(importId);
+        userImportVO.setStatus(Integer.valueOf((String) progressMap.get("status")));
+        userImportVO.setProcessed(Long.valueOf((String) progressMap.get("processed")));
+        userImportVO.setImported(Long.valueOf((String) progressMap.get("imported")));
+        userImportVO.setDuplicated(Long.valueOf((String) progressMap.get("duplicated")));
+        userImportVO.setFailed(Long.valueOf((String) progressMap.get("failed")));
+        userImportVO.setMessage((String) progressMap.get("message"));
+        userImportVO.setErrors(redisTemplate.opsForList().range(importKey + ":errors", 0, -1));
+        return userImportVO;
+    }
+
+    private void runImport(String importId, Path tempFile, String format) {
+        long start = System.currentTimeMillis();
+        ImportContext context = new ImportContext(importId);
+        try (BufferedReader reader = Files.newBufferedReader(tempFile, StandardCharsets.UTF_8)) {
+            RowReader rowReader = FORMAT_CSV.equals(format) ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            ImportRow row;
+            while ((row = rowReader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() >= CHUNK_SIZE) {
+                    importChunk(chunk, context);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, context);
+            }
+            redisTemplate.opsForHash().put(IMPORT_KEY_PREFIX + importId, "status",
+                    String.valueOf(UserImportStatusEnum.DONE.getValue()));
+            log.info("批量导入用户完成, importId => {}, 成功 => {}, 耗时 => {}ms",
+                    importId, context.imported, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("批量导入用户失败, importId => {}", importId, e);
+            Map<String, String> resultMap = new HashMap<>();
+            resultMap.put("status", String.valueOf(UserImportStatusEnum.FAILED.getValue()));
+            resultMap.put("message", e instanceof BusinessException ? e.getMessage() : "导入失败，已导入的数据不会回滚");
+            redisTemplate.opsForHash().putAll(IMPORT_KEY_PREFIX + importId, resultMap);
+        } finally {
+            deleteQuietly(tempFile);
+            if (context.imported > 0) {
+                userService.evictUserListCaches();
+            }
+        }
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportContext context) {
+        List<String> errors = new ArrayList<>();
+        int duplicated = 0;
+
+        // 校验（特殊字符已预编译），同时去掉文件内重复的账号
+        List<ImportRow> validRows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            String error = validate(row);
+            if (error != null) {
+                errors.add(formatError(row, error));
+            } else if (!context.seenAccounts.add(row.userAccount)) {
+                duplicated++;
+                errors.add(formatError(row, "文件内账号重复"));
+            } else {
+                validRows.add(row);
+            }
+        }
+
+        // 一次查询去掉已存在的账号
+        if (!validRows.isEmpty()) {
+            Set<String> existingAccounts = new HashSet<>(userMapper.selectExistingAccounts(
+                    validRows.stream().map(row -> row.userAccount).collect(Collectors.toList())));
+            Iterator<ImportRow> iterator = validRows.iterator();
+            while (iterator.hasNext()) {
+                ImportRow row = iterator.next();
+                if (existingAccounts.contains(row.userAccount)) {
+                    iterator.remove();
+                    duplicated++;
+                    errors.add(formatError(row, "账号已存在"));
+                }
+            }
+        }
+
+        // BCrypt 在有界线程池中并行计算
+        List<CompletableFuture<User>> futures = validRows.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> toUser(row), passwordHashExecutor))
+                .toList();
+        List<User> userList = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+        int imported = insertUsers(userList, validRows, errors);
+        recordProgress(context, chunk.size(), imported, duplicated, errors.size() - duplicated, errors);
+    }
+
+    /**
+     * 整批插入，失败（如并发注册导致唯一索引冲突）时逐条插入以得到每一行的结果
+     */
+    private int insertUsers(List<User> userList, List<ImportRow> rows, List<String> errors) {
+        if (userList.isEmpty()) {
+            return 0;
+        }
+        try {
+            userService.saveBatch(userList, CHUNK_SIZE);
+            return userList.size();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("批量插入用户失败, 改为逐条插入 => {}", e.getMessage());
+        }
+        int imported = 0;
+        for (int i = 0; i < userList.size(); i++) {
+            User user = userList.get(i);
+            user.setId(null);
+            try {
+                userMapper.insert(user);
+                imported++;
+            } catch (DataIntegrityViolationException e) {
+                errors.add(formatError(rows.get(i), "写入失败，账号可能已存在"));
+            }
+        }
+        return imported;
+    }
+
+    private void recordProgress(ImportContext context, int processed, int imported, int duplicated, int failed,
+                                List<String> errors) {
+        String importKey = IMPORT_KEY_PREFIX + context.importId;
+        redisTemplate.opsForHash().increment(importKey, "processed", processed);
+        redisTemplate.opsForHash().increment(importKey, "imported", imported);
+        redisTemplate.opsForHash().increment(importKey, "duplicated", duplicated);
+        redisTemplate.opsForHash().increment(importKey, "failed", failed);
+        context.imported += imported;
+
+        int remaining = MAX_ERRORS - context.errorCount;
+        if (remaining > 0 && !errors.isEmpty()) {
+            List<String> recordErrors = errors.size() > remaining ? errors.subList(0, remaining) : errors;
+            redisTemplate.opsForList().rightPushAll(importKey + ":errors", recordErrors);
+            redisTemplate.expire(importKey + ":errors", IMPORT_TTL_HOURS, TimeUnit.HOURS);
+            context.errorCount += recordErrors.size();
+        }
+    }
+
+    /**
+     * 与注册接口的校验规则保持一致，返回错误原因，校验通过返回 null
+     */
+    private static String validate(ImportRow row) {
+        if (row.parseError != null) {
+            return row.parseError;
+        }
+        if (StringUtils.isBlank(row.userAccount) || row.userAccount.length() > 20) {
+            return "账号必须在1到20个字符之间";
+        }
+        if (AccountUtils.containsInvalidChar(row.userAccount)) {
+            return "账号包含特殊字符";
+        }
+        if (row.userPassword == null || row.userPassword.length() < 4 || row.userPassword.length() > 32) {
+            return "密码必须在4到32个字符之间";
+        }
+        if (row.gender != null && row.gender != 0 && row.gender != 1) {
+            return "性别不正确";
+        }
+        return null;
+    }
+
+    private User toUser(ImportRow row) {
+        User user = new User();
+        user.setUserAccount(row.userAccount);
+        user.setUserPassword(passwordEncoder.encode(row.userPassword));
+        user.setUsername(row.username);
+        user.setEmail(row.email);
+        user.setPhone(row.phone);
+        user.setGender(row.gender);
+        return user;
+    }
+
+    private static String formatError(ImportRow row, String reason) {
+        return "第 " + row.lineNumber + " 行 [" + StringUtils.defaultString(row.userAccount) + "] " + reason;
+    }
+
+    private static String resolveFormat(String format, String filename) {
+        String resolved = StringUtils.isNotBlank(format) ? format.trim().toLowerCase(Locale.ROOT)
+                : StringUtils.lowerCase(StringUtils.substringAfterLast(filename, "."), Locale.ROOT);
+        if ("jsonl".equals(resolved)) {
+            resolved = FORMAT_NDJSON;
+        }
+        if (!FORMAT_CSV.equals(resolved) && !FORMAT_NDJSON.equals(resolved)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "只支持 CSV 或 NDJSON 格式");
+        }
+        return resolved;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除临时文件失败 => {}", path, e);
+        }
+    }
+
+    /**
+     * 一次导入任务的状态，只在导入线程中访问
+     */
+    private static class ImportContext {
+
+        private final String importId;
+
+        private final Set<String> seenAccounts = new HashSet<>();
+
+        private long imported;
+
+        private int errorCount;
+
+        ImportContext(String importId) {
+            this.importId = importId;
+        }
+    }
+
+    private static class ImportRow {
+
+        private long lineNumber;
+
+        private String userAccount;
+
+        private String userPassword;
+
+        private String username;
+
+        private String email;
+
+        private String phone;
+
+        private Integer gender;
+
+        /**
+         * 行格式错误，不为空时该行跳过
+         */
+        private String parseError;
+
+        /**
+         * 按字段名赋值，字段名兼容驼峰和下划线
+         */
+        void set(String field, String value) {
+            String normalized = field.replace("_", "").toLowerCase(Locale.ROOT);
+            String trimmed = StringUtils.trimToNull(value);
+            switch (normalized) {
+                case "useraccount" -> userAccount = trimmed;
+                case "userpassword", "password" -> userPassword = value;
+                case "username" -> username = trimmed;
+                case "email" -> email = trimmed;
+                case "phone" -> phone = trimmed;
+                case "gender" -> {
+                    if (trimmed != null) {
+                        try {
+                            gender = Integer.valueOf(trimmed);
+                        } catch (NumberFormatException e) {
+                            parseError = "性别不正确";
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private interface RowReader {
+
+        /**
+         * 读取下一行数据，没有更多数据时返回 null（空行跳过）
+         */
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * CSV：第一行为表头，支持双引号包裹的字段和 "" 转义
+     */
+    private static class CsvRowReader implements RowReader {
+
+        private final BufferedReader reader;
+
+        private List<String> header;
+
+        private long lineNumber;
+
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                if (header == null) {
+                    // 去掉 UTF-8 BOM
+                    header = parseLine(line.startsWith("\uFEFF") ? line.substring(1) : line);
+                    if (!header.stream().map(name -> name.replace("_", "").toLowerCase(Locale.ROOT)).toList()
+                            .contains("useraccount")) {
+                        throw new BusinessException(ErrorCode.PARAMS_ERROR, "CSV 表头缺少 userAccount");
+                    }
+                    continue;
+                }
+                ImportRow row = new ImportRow();
+                row.lineNumber = lineNumber;
+                List<String> values = parseLine(line);
+                if (values == null) {
+                    row.parseError = "CSV 格式错误";
+                    return row;
+                }
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    row.set(header.get(i).trim(), values.get(i));
+                }
+                return row;
+            }
+            return null;
+        }
+
+        /**
+         * 解析一行，引号不成对时返回 null
+         */
+        private static List<String> parseLine(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+
+    /**
+     * NDJSON：每行一个 JSON 对象
+     */
+    private class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+
+        private long lineNumber;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                ImportRow row = new ImportRow();
+                row.lineNumber = lineNumber;
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    row.parseError = "JSON 格式错误";
+                    return row;
+                }
+                if (node == null || !node.isObject()) {
+                    row.parseError = "JSON 格式错误";
+                    return row;
+                }
+                node.fields().forEachRemaining(entry -> row.set(entry.getKey(),
+                        entry.getValue().isNull() ? null : entry.getValue().asText()));
+                return row;
+            }
+            return null;
+        }
+    }
+}
@@ -2,21 +2,34 @@ package com.lcj.zhiyin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.lcj.zhiyin.common.CursorPage;
 import com.lcj.zhiyin.common.response.LoginResponseData;
+import com.lcj.zhiyin.datasource.DataSourceContextHolder;
+import com.lcj.zhiyin.datasource.ReadReplica;
 import com.lcj.zhiyin.exception.BusinessException;
 import com.lcj.zhiyin.common.ErrorCode;
+import com.lcj.zhiyin.model.converter.UserConverter;
 import com.lcj.zhiyin.model.domain.User;
 import com.lcj.zhiyin.service.UserService;
 import com.lcj.zhiyin.mapper.UserMapper;
+import com.lcj.zhiyin.utils.AccountUtils;
 import com.lcj.zhiyin.utils.AlgorithmUtils;
+import com.lcj.zhiyin.utils.CursorUtils;
 import com.lcj.zhiyin.utils.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.springframework.beans.BeanUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,11 +37,11 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import java.io.Serializable;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,19 +49,38 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
+    private static final String USER_TOTAL_KEY = "zhiyin:user:total";
+
+    private static final String RECOMMEND_USERS_CACHE = "recommend_users";
+
+    private static final String MATCH_USERS_CACHE = "match_users";
+
+    /**
+     * 活跃用户，score 为最近一次登录时间（毫秒），缓存预热据此选择热点用户
+     */
+    private static final String ACTIVE_USERS_KEY = "zhiyin:user:active";
+
+    /**
+     * 脱敏用户缓存，批量获取用户时使用
+     */
+    private static final String SAFE_USER_KEY_PREFIX = "zhiyin:user:safe:";
+
+    private static final Duration SAFE_USER_TTL = Duration.ofMinutes(30);
+
     private UserMapper userMapper;
 
     private BCryptPasswordEncoder passwordEncoder;
 
     private StringRedisTemplate redisTemplate;
 
+    private RedisTemplate<String, Object> objectRedisTemplate;
+
     @Override
+    @CacheEvict(value = {RECOMMEND_USERS_CACHE, MATCH_USERS_CACHE}, allEntries = true)
     public long userRegister(String userAccount, String userPassword, String checkPassword) {
 
         // 检查特殊字符（可根据需要保留）
-        String validPattern = "[`~!@#$%^&*()+=|{}':;,\\\\.<>/?！￥…（）—【】‘；：”“’。，、？]";
-        Matcher matcher = Pattern.compile(validPattern).matcher(userAccount);
-        if (matcher.find()) {
+        if (AccountUtils.containsInvalidChar(userAccount)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "账号包含特殊字符");
         }
         if (!userPassword.equals(checkPassword)) {
@@ -75,15 +107,12 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     public LoginResponseData userLogin(String userAccount, String userPassword) {
 
         // 检查特殊字符
-        String validPattern = "[`~!@#$%^&*()+=|{}':;,\\\\.<>/?！￥…（）—【】‘；：”“’。，、？]";
-        if (Pattern.compile(validPattern).matcher(userAccount).find()) {
+        if (AccountUtils.containsInvalidChar(userAccount)) {
             log.warn("登录失败： 账号包含特殊字符, userAccount={}", userAccount);
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "账号包含特殊字符");
         }
-        // 根据 userAccount 查询用户
-        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(User::getUserAccount, userAccount);
-        User user = userMapper.selectOne(queryWrapper);
+        // 根据 userAccount 查询用户（只查询认证和登录响应需要的字段）
+        User user = userMapper.selectAuthByUserAccount(userAccount);
         if (user == null) {
             log.warn("登录失败：用户不存在, userAccount={}", userAccount);
             throw new BusinessException(ErrorCode.NOT_FOUND, "用户不存在");
@@ -102,6 +131,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         String redisKey = "jwt:token:" + token;
 
         redisTemplate.opsForValue().set(redisKey, userAccount, 1, TimeUnit.DAYS);
+        redisTemplate.opsForZSet().add(ACTIVE_USERS_KEY, String.valueOf(user.getId()), System.currentTimeMillis());
         Object value = redisTemplate.opsForValue().get(redisKey);
         if(value != null) log.info("存入Redis成功 value= {}", value);
         else log.warn("存入Redis失败!");
@@ -113,13 +143,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     @Override
     public User getSafetyUser(User originUser) {
-        if (originUser == null) {
-            return null;
-        }
-        User safetyUser = new User();
-        BeanUtils.copyProperties(originUser, safetyUser, "userPassword","createTime","updateTime","isDelete","avatarUrl");
-        log.info("响应脱敏后的safeUser=> {}",safetyUser);
-        return safetyUser;
+        return UserConverter.toSafetyUser(originUser);
     }
 
     @Override
@@ -137,13 +161,15 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     @Override
     @PreAuthorize("hasRole('ADMIN')")
+    @ReadReplica
     public List<User> searchUsersByUsername(String username) {
-        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        LambdaQueryWrapper<User> queryWrapper = publicProfileQuery();
         queryWrapper.like(User::getUsername, username);
         return userMapper.selectList(queryWrapper);
     }
 
     @Override
+    @ReadReplica
     public List<User> searchUsersByTags(List<String> tagNameList) {
         if (CollectionUtils.isEmpty(tagNameList)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
@@ -151,6 +177,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
         // 构造 SQL 条件
         QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(UserMapper.PUBLIC_PROFILE_COLUMNS);
 
         StringBuilder condition = new StringBuilder();
         condition.append("(");
@@ -168,6 +195,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     // 依赖 @PreAuthorize 完成权限校验，省去手动验证
     @PreAuthorize("hasRole('ADMIN') or #user.userAccount == principal")
+    @CacheEvict(value = {RECOMMEND_USERS_CACHE, MATCH_USERS_CACHE}, allEntries = true)
     public int updateUser(User user) {
 
         User oldUser = userMapper.selectById(user.getId());
@@ -175,14 +203,19 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             log.warn("更新时: 用户不存在");
             throw new BusinessException(ErrorCode.NULL_ERROR);
         }
-        return userMapper.updateById(user);
+        int result = userMapper.updateById(user);
+        objectRedisTemplate.delete(SAFE_USER_KEY_PREFIX + user.getId());
+        return result;
     }
 
     @Override
     public User getUserByUserAccount(String userAccount) {
-        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(User::getUserAccount, userAccount);
-        return userMapper.selectOne(queryWrapper);
+        return userMapper.selectPublicProfileByUserAccount(userAccount);
+    }
+
+    @Override
+    public User getAuthUserByUserAccount(String userAccount) {
+        return userMapper.selectAuthByUserAccount(userAccount);
     }
 
     @Override
@@ -200,14 +233,171 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if(userIds == null || userIds.isEmpty()){
             return Collections.emptyMap();
         }
-        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.in(User::getId, userIds);
-        List<User> userList = userMapper.selectList(queryWrapper);
+        List<User> userList = userMapper.selectPublicProfilesByIds(userIds);
         return userList.stream().collect(Collectors.toMap(User::getId, Function.identity()));
     }
 
     @Override
+    @Cacheable(value = RECOMMEND_USERS_CACHE, key = "#pageNum + '-' + #pageSize", sync = true)
+    public Page<User> recommendUsers(long pageNum, long pageSize) {
+        return pageSafetyUsers(pageNum, pageSize);
+    }
+
+    @Override
+    @ReadReplica
+    public Page<User> pageSafetyUsers(long pageNum, long pageSize) {
+        Page<User> userPage = this.page(new Page<>(pageNum, pageSize), publicProfileQuery());
+        userPage.setRecords(userPage.getRecords().stream().map(this::getSafetyUser).collect(Collectors.toList()));
+        return userPage;
+    }
+
+    @Override
+    @ReadReplica
+    public CursorPage<User> listUsersByCursor(String cursor, int pageSize) {
+        // 第一页计算一次总数并缓存，后续页只读取缓存中的近似值
+        String cachedTotal = redisTemplate.opsForValue().get(USER_TOTAL_KEY);
+        Long total = cachedTotal == null ? null : Long.valueOf(cachedTotal);
+        if (total == null && StringUtils.isBlank(cursor)) {
+            total = userMapper.selectCount(null);
+            redisTemplate.opsForValue().set(USER_TOTAL_KEY, String.valueOf(total), 10, TimeUnit.MINUTES);
+        }
+
+        // id > 上一页最后一个 id，多取一条判断是否还有下一页
+        LambdaQueryWrapper<User> queryWrapper = publicProfileQuery();
+        if (StringUtils.isNotBlank(cursor)) {
+            queryWrapper.gt(User::getId, CursorUtils.decode(cursor)[1]);
+        }
+        queryWrapper.orderByAsc(User::getId).last("LIMIT " + (pageSize + 1));
+        List<User> userList = userMapper.selectList(queryWrapper);
+
+        boolean hasMore = userList.size() > pageSize;
+        if (hasMore) {
+            userList = userList.subList(0, pageSize);
+        }
+        CursorPage<User> cursorPage = new CursorPage<>();
+        cursorPage.setRecords(userList.stream().map(this::getSafetyUser).collect(Collectors.toList()));
+        cursorPage.setHasMore(hasMore);
+        cursorPage.setTotal(total);
+        if (hasMore) {
+            long lastId = userList.get(userList.size() - 1).getId();
+            cursorPage.setNextCursor(CursorUtils.encode(lastId, lastId));
+        }
+        return cursorPage;
+    }
+
+    @Override
+    public List<Long> listActiveUserIds(Duration window, int limit) {
+        return new ArrayList<>(listActiveUsers(window, limit).keySet());
+    }
+
+    @Override
+    public Map<Long, Long> listActiveUsers(Duration window, int limit) {
+        long minScore = System.currentTimeMillis() - window.toMillis();
+        // 顺带清理窗口之外的记录，避免集合无限增长
+        redisTemplate.opsForZSet().removeRangeByScore(ACTIVE_USERS_KEY, 0, minScore);
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().reverseRangeByScoreWithScores(ACTIVE_USERS_KEY, minScore, Double.MAX_VALUE, 0, limit);
+        if (tuples == null) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Long> activeUsers = new LinkedHashMap<>();
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                activeUsers.put(Long.valueOf(tuple.getValue()), tuple.getScore().longValue());
+            }
+        }
+        return activeUsers;
+    }
+
+    @Override
+    @ReadReplica
+    public List<User> getSafetyUsersByIds(List<Long> userIds) {
+        if (CollectionUtils.isEmpty(userIds)) {
+            return new ArrayList<>();
+        }
+        List<String> keys = userIds.stream().map(id -> SAFE_USER_KEY_PREFIX + id).collect(Collectors.toList());
+        Map<Long, User> userMap = new HashMap<>();
+        try {
+            List<Object> cachedList = objectRedisTemplate.opsForValue().multiGet(keys);
+            if (cachedList != null) {
+                cachedList.stream()
+                        .filter(User.class::isInstance)
+                        .map(User.class::cast)
+                        .forEach(user -> userMap.put(user.getId(), user));
+            }
+        } catch (Exception e) {
+            log.error("redis multiGet safe user error", e);
+        }
+
+        // 缓存中的用户可能已被删除（推荐流、热门列表要到下次生成才更新），按主键过滤并清除其缓存
+        Set<Long> removedIds = new HashSet<>(userMap.keySet());
+        if (!userMap.isEmpty()) {
+            removedIds.removeAll(userMapper.selectExistingIds(userMap.keySet()));
+            if (!removedIds.isEmpty()) {
+                userMap.keySet().removeAll(removedIds);
+                objectRedisTemplate.delete(removedIds.stream().map(id -> SAFE_USER_KEY_PREFIX + id).collect(Collectors.toList()));
+            }
+        }
+
+        // 未命中的 id 一次查库，再通过 pipeline 回填缓存
+        Set<Long> missIds = userIds.stream()
+                .filter(id -> !userMap.containsKey(id) && !removedIds.contains(id))
+                .collect(Collectors.toSet());
+        if (!missIds.isEmpty()) {
+            // 回填缓存的数据从主库读取
+            List<User> loadedList = DataSourceContextHolder.callOnPrimary(() -> userMapper.selectPublicProfilesByIds(missIds))
+                    .stream()
+                    .map(this::getSafetyUser)
+                    .collect(Collectors.toList());
+            loadedList.forEach(user -> userMap.put(user.getId(), user));
+            try {
+                objectRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                        loadedList.forEach(user -> redisOperations.opsForValue()
+                                .set(SAFE_USER_KEY_PREFIX + user.getId(), user, SAFE_USER_TTL));
+                        return null;
+                    }
+                });
+            } catch (Exception e) {
+                log.error("redis set safe user error", e);
+            }
+        }
+        return userIds.stream()
+                .map(userMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 删除用户后推荐、匹配结果和推荐流中不应再出现该用户
+     */
+    @Override
+    @CacheEvict(value = {RECOMMEND_USERS_CACHE, MATCH_USERS_CACHE}, allEntries = true)
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        objectRedisTemplate.delete(SAFE_USER_KEY_PREFIX + id);
+        return removed;
+    }
+
+    @Override
+    @CacheEvict(value = {RECOMMEND_USERS_CACHE, MATCH_USERS_CACHE}, allEntries = true)
+    public void evictUserListCaches() {
+        redisTemplate.delete(USER_TOTAL_KEY);
+    }
+
+    // 未命中时计算结果会写入缓存，走主库（非 sync 缓存的加载不经过 TwoLevelCache）
+    @Override
+    @Cacheable(value = MATCH_USERS_CACHE, key = "#loginUser.id + '-' + #num")
     public List<User> matchUsers(long num, User loginUser) {
+        return computeMatchUsers(num, loginUser);
+    }
+
+    @Override
+    @ReadReplica
+    public List<User> computeMatchUsers(long num, User loginUser) {
         // 查询所有状态为正常且 tags 不为空的用户，仅查询 id 和 tags 字段
         LambdaQueryWrapper<User> lambdaQuery = new LambdaQueryWrapper<>();
         lambdaQuery.select(User::getId, User::getTags)
@@ -236,10 +426,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 .map(pair -> pair.getLeft().getId())
                 .collect(Collectors.toList());
 
-        // 根据 userId 查询完整用户信息，并构建一个 id -> 安全用户 的映射
-        QueryWrapper<User> userQueryWrapper = new QueryWrapper<>();
-        userQueryWrapper.in("id", userIdList);
-        Map<Long, User> idUserMap = this.list(userQueryWrapper)
+        if (userIdList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // 根据 userId 查询公开资料，并构建一个 id -> 安全用户 的映射
+        Map<Long, User> idUserMap = userMapper.selectPublicProfilesByIds(userIdList)
                 .stream()
                 .collect(Collectors.toMap(User::getId, this::getSafetyUser));
 
@@ -249,4 +440,10 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 只查询公开资料字段的查询条件
+     */
+    private static LambdaQueryWrapper<User> publicProfileQuery() {
+        return new QueryWrapper<User>().select(UserMapper.PUBLIC_PROFILE_COLUMNS).lambda();
+    }
 }
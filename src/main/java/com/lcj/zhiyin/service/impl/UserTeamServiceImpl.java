@@ -2,16 +2,31 @@ package com.lcj.zhiyin.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.lcj.zhiyin.common.ErrorCode;
+import com.lcj.zhiyin.datasource.DataSourceContextHolder;
+import com.lcj.zhiyin.exception.BusinessException;
 import com.lcj.zhiyin.service.UserTeamService;
 import com.lcj.zhiyin.model.domain.UserTeam;
+import com.lcj.zhiyin.model.dto.TeamJoinCountDTO;
 import com.lcj.zhiyin.mapper.UserTeamMapper;
+import com.lcj.zhiyin.model.vo.TeamMemberVO;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 用户队伍服务实现类
@@ -21,26 +36,244 @@ import java.util.stream.Collectors;
 public class UserTeamServiceImpl extends ServiceImpl<UserTeamMapper, UserTeam>
         implements UserTeamService {
 
+    private static final String MEMBER_TEAMS_KEY_PREFIX = "zhiyin:user:teams:";
+
+    /**
+     * 用户已加入队伍集合的版本号，每次失效时递增，回填时版本号已变化说明读到的是旧数据
+     */
+    private static final String MEMBER_TEAMS_VERSION_KEY_PREFIX = "zhiyin:user:teams:version:";
+
+    /**
+     * 队伍成员有序集合，score 为加入时间（毫秒）
+     */
+    private static final String TEAM_MEMBERS_KEY_PREFIX = "zhiyin:team:members:";
+
+    /**
+     * 占位元素，区分"未缓存"与"未加入任何队伍"
+     */
+    private static final String EMPTY_MEMBER = "0";
+
+    private static final long MEMBER_CACHE_SECONDS = TimeUnit.MINUTES.toSeconds(30);
+
+    /**
+     * 版本号未变化时 SADD 与 EXPIRE 原子执行，避免中途失败留下永不过期的集合，也避免并发读取把失效前的旧数据写回。
+     * KEYS[1] 为集合，KEYS[2] 为版本号；ARGV[1] 为读取数据库前的版本号（不存在时为空串），ARGV[2] 为过期秒数，其余为元素
+     */
+    private static final RedisScript<Long> SADD_IF_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then return 0 end " +
+                    "redis.call('SADD', KEYS[1], unpack(ARGV, 3)) " +
+                    "return redis.call('EXPIRE', KEYS[1], ARGV[2])", Long.class);
+
+    /**
+     * 删除集合并递增版本号。KEYS 依次为集合、版本号成对出现，ARGV[1] 为版本号过期秒数
+     */
+    private static final RedisScript<Long> EVICT_WITH_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do " +
+                    "redis.call('DEL', KEYS[i]) " +
+                    "redis.call('INCR', KEYS[i + 1]) " +
+                    "redis.call('EXPIRE', KEYS[i + 1], ARGV[1]) " +
+                    "end " +
+                    "return #KEYS / 2", Long.class);
+
+    /**
+     * ZADD 与 EXPIRE 原子执行。ARGV[1] 为过期秒数，其余依次为 score、member
+     */
+    private static final RedisScript<Long> ZADD_WITH_EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('ZADD', KEYS[1], unpack(ARGV, 2)) " +
+                    "return redis.call('EXPIRE', KEYS[1], ARGV[1])", Long.class);
+
     private final UserTeamMapper userTeamMapper;
+    private final StringRedisTemplate redisTemplate;
 
     public Set<Long> getJoinedTeamIds(Long userId, List<Long> teamIdList) {
-        return userTeamMapper.selectList(new LambdaQueryWrapper<UserTeam>()
-                        .eq(UserTeam::getUserId, userId)
-                        .in(UserTeam::getTeamId, teamIdList))
-                .stream()
-                .map(UserTeam::getTeamId)
+        Set<Long> memberTeamIds = getMemberTeamIds(userId);
+        return teamIdList.stream()
+                .filter(memberTeamIds::contains)
                 .collect(Collectors.toSet());
     }
 
     public Map<Long, Long> countByTeamIds(List<Long> teamIdList) {
-        return userTeamMapper.selectList(new LambdaQueryWrapper<UserTeam>()
-                        .in(UserTeam::getTeamId, teamIdList))
+        return userTeamMapper.countByTeamIds(teamIdList)
                 .stream()
-                .collect(Collectors.groupingBy(UserTeam::getTeamId, Collectors.counting()));
+                .collect(Collectors.toMap(TeamJoinCountDTO::getTeamId, TeamJoinCountDTO::getJoinCount));
     }
 
-}
+    @Override
+    public void saveMembers(long teamId, List<Long> userIdList) {
+        LocalDateTime joinTime = LocalDateTime.now();
+
+        // 曾加入后退出的用户：恢复旧记录，否则会与 (user_id, team_id) 唯一索引冲突
+        Set<Long> deletedIds = new HashSet<>(userTeamMapper.selectDeletedMemberIds(teamId, userIdList));
+        if (!deletedIds.isEmpty()) {
+            int restored = userTeamMapper.restoreMembers(teamId, deletedIds, joinTime);
+            if (restored != deletedIds.size()) {
+                Set<Long> existingIds = new HashSet<>(userTeamMapper.selectExistingMemberIds(teamId, deletedIds));
+                if (existingIds.size() > restored) {
+                    // 并发请求已恢复了同一条记录
+                    throw new BusinessException(ErrorCode.PARAMS_ERROR, "已加入该队伍");
+                }
+                // 其余旧记录已被归档任务物理删除，改为插入新记录
+                deletedIds.retainAll(existingIds);
+            }
+        }
 
+        List<UserTeam> newMembers = userIdList.stream()
+                .filter(userId -> !deletedIds.contains(userId))
+                .map(userId -> {
+                    UserTeam userTeam = new UserTeam();
+                    userTeam.setUserId(userId);
+                    userTeam.setTeamId(teamId);
+                    userTeam.setJoinTime(joinTime);
+                    return userTeam;
+                })
+                .collect(Collectors.toList());
+        if (!newMembers.isEmpty() && !this.saveBatch(newMembers)) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加入队伍失败");
+        }
+    }
 
+    @Override
+    public Set<Long> getMemberTeamIds(long userId) {
+        String redisKey = MEMBER_TEAMS_KEY_PREFIX + userId;
+        Set<String> members = redisTemplate.opsForSet().members(redisKey);
+        if (CollectionUtils.isNotEmpty(members)) {
+            return members.stream()
+                    .filter(member -> !EMPTY_MEMBER.equals(member))
+                    .map(Long::valueOf)
+                    .collect(Collectors.toSet());
+        }
+
+        // 先读版本号再从主库读取，读取期间有成员变更提交时版本号已递增，不再回填
+        String versionKey = MEMBER_TEAMS_VERSION_KEY_PREFIX + userId;
+        String version = Objects.toString(redisTemplate.opsForValue().get(versionKey), "");
+        List<Long> teamIdList = DataSourceContextHolder.callOnPrimary(() -> userTeamMapper.selectJoinedTeamIds(userId, null));
+        Object[] args = Stream.of(Stream.of(version, String.valueOf(MEMBER_CACHE_SECONDS), EMPTY_MEMBER),
+                        teamIdList.stream().map(String::valueOf))
+                .flatMap(stream -> stream)
+                .toArray();
+        redisTemplate.execute(SADD_IF_VERSION_SCRIPT, List.of(redisKey, versionKey), args);
+        return new HashSet<>(teamIdList);
+    }
 
+    @Override
+    public void evictMemberTeamIds(Collection<Long> userIdList) {
+        if (userIdList.isEmpty()) {
+            return;
+        }
+        List<String> redisKeys = new ArrayList<>(userIdList.size() * 2);
+        for (Long userId : userIdList) {
+            redisKeys.add(MEMBER_TEAMS_KEY_PREFIX + userId);
+            redisKeys.add(MEMBER_TEAMS_VERSION_KEY_PREFIX + userId);
+        }
+        runAfterCommit(() -> redisTemplate.execute(EVICT_WITH_VERSION_SCRIPT, redisKeys,
+                String.valueOf(MEMBER_CACHE_SECONDS)));
+    }
+
+    @Override
+    public Map<Long, List<TeamMemberVO>> getMemberPreviews(List<Long> teamIdList, int previewSize) {
+        if (CollectionUtils.isEmpty(teamIdList) || previewSize <= 0) {
+            return Collections.emptyMap();
+        }
+        return userTeamMapper.selectMemberPreviews(teamIdList, previewSize)
+                .stream()
+                .collect(Collectors.groupingBy(TeamMemberVO::getTeamId, LinkedHashMap::new, Collectors.toList()));
+    }
 
+    @Override
+    public long countTeamMembers(long teamId) {
+        String redisKey = loadTeamMembers(teamId);
+        Long size = redisTemplate.opsForZSet().zCard(redisKey);
+        return size == null ? 0 : size;
+    }
+
+    @Override
+    public List<UserTeam> listTeamMembers(long teamId, long offset, long count) {
+        if (offset < 0 || count <= 0) {
+            return Collections.emptyList();
+        }
+        String redisKey = loadTeamMembers(teamId);
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().rangeWithScores(redisKey, offset, offset + count - 1);
+        if (CollectionUtils.isEmpty(tuples)) {
+            return Collections.emptyList();
+        }
+        return tuples.stream()
+                .map(tuple -> {
+                    UserTeam userTeam = new UserTeam();
+                    userTeam.setTeamId(teamId);
+                    userTeam.setUserId(Long.valueOf(tuple.getValue()));
+                    userTeam.setJoinTime(LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(tuple.getScore().longValue()), ZoneId.systemDefault()));
+                    return userTeam;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Long getNextLeaderId(long teamId, long excludeUserId) {
+        return userTeamMapper.selectNextLeaderId(teamId, excludeUserId);
+    }
+
+    @Override
+    public void evictTeamMembers(Collection<Long> teamIdList) {
+        deleteAfterCommit(teamIdList.stream()
+                .map(teamId -> TEAM_MEMBERS_KEY_PREFIX + teamId)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 成员缓存不存在时从数据库加载整个队伍的成员（队伍人数有上限，一次写入）
+     */
+    private String loadTeamMembers(long teamId) {
+        String redisKey = TEAM_MEMBERS_KEY_PREFIX + teamId;
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(redisKey))) {
+            return redisKey;
+        }
+        List<UserTeam> userTeamList = DataSourceContextHolder.callOnPrimary(() -> this.list(new LambdaQueryWrapper<UserTeam>()
+                .select(UserTeam::getUserId, UserTeam::getJoinTime, UserTeam::getCreateTime)
+                .eq(UserTeam::getTeamId, teamId)));
+        if (userTeamList.isEmpty()) {
+            return redisKey;
+        }
+        List<String> args = new ArrayList<>(userTeamList.size() * 2 + 1);
+        args.add(String.valueOf(MEMBER_CACHE_SECONDS));
+        for (UserTeam userTeam : userTeamList) {
+            args.add(String.valueOf(joinTimeMillis(userTeam)));
+            args.add(String.valueOf(userTeam.getUserId()));
+        }
+        redisTemplate.execute(ZADD_WITH_EXPIRE_SCRIPT, List.of(redisKey), args.toArray());
+        return redisKey;
+    }
+
+    /**
+     * 加入时间为空的旧数据按创建时间排序
+     */
+    private static long joinTimeMillis(UserTeam userTeam) {
+        LocalDateTime joinTime = Optional.ofNullable(userTeam.getJoinTime()).orElse(userTeam.getCreateTime());
+        return joinTime == null ? 0 : joinTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void deleteAfterCommit(List<String> redisKeys) {
+        if (redisKeys.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> redisTemplate.delete(redisKeys));
+    }
+
+    /**
+     * 事务提交后再失效缓存，避免并发读取把未提交前的旧数据重新写回缓存
+     */
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+}
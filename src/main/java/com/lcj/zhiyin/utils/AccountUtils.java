@@ -0,0 +1,22 @@
+package com.lcj.zhiyin.utils;
+
+import java.util.regex.Pattern;
+
+/**
+ * 账号工具类
+ */
+public class AccountUtils {
+
+    /**
+     * 账号中不允许出现的特殊字符（预编译，注册、登录和批量导入共用）
+     */
+    private static final Pattern INVALID_CHAR_PATTERN =
+            Pattern.compile("[`~!@#$%^&*()+=|{}':;,\\\\.<>/?！￥…（）—【】‘；：”“’。，、？]");
+
+    /**
+     * 账号是否包含特殊字符
+     */
+    public static boolean containsInvalidChar(String userAccount) {
+        return INVALID_CHAR_PATTERN.matcher(userAccount).find();
+    }
+}
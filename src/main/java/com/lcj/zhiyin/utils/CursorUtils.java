@@ -0,0 +1,34 @@
+package com.lcj.zhiyin.utils;
+
+import com.lcj.zhiyin.common.ErrorCode;
+import com.lcj.zhiyin.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 游标工具类（游标对客户端不透明，编码最后一条记录的 (排序键, id)）
+ */
+public class CursorUtils {
+
+    /**
+     * 编码游标
+     */
+    public static String encode(long sortKey, long id) {
+        String raw = sortKey + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标，返回 [排序键, id]
+     */
+    public static long[] decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.indexOf(':');
+            return new long[]{Long.parseLong(raw.substring(0, index)), Long.parseLong(raw.substring(index + 1))};
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "游标无效");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.lcj.zhiyin.utils;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 请求合并：同一个 key 同一时刻只有一个线程执行加载，其余线程等待并共享它的结果
+ * <p>
+ * 用于缓存未命中时避免并发请求同时查询数据库（缓存击穿），只在当前节点内合并。
+ * 等待方最多等待 waitTimeout，加载线程卡住时不会拖住所有等待的请求线程。
+ */
+public class SingleFlight<K, V> {
+
+    private static final Duration DEFAULT_WAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final long waitTimeoutMillis;
+
+    public SingleFlight() {
+        this(DEFAULT_WAIT_TIMEOUT);
+    }
+
+    public SingleFlight(Duration waitTimeout) {
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+    }
+
+    /**
+     * 同步加载，已有线程在加载该 key 时等待其结果，超时抛出 IllegalStateException
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing == null) {
+            return run(key, future, loader);
+        }
+        try {
+            return existing.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待加载结果时被中断", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("等待加载结果超时, key => " + key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 在线程池中异步加载，已有线程在加载该 key 时直接返回其 future
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<V> loader, Executor executor) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(key, future, loader);
+                } catch (RuntimeException | Error ignored) {
+                    // 异常已通过 future 传递给调用方
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private V run(K key, CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.lcj.zhiyin.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 标签列表（JSON 字符串数组）专用的类型处理器
+ * <p>
+ * 用最简单的流式解析读取字符串数组，标签经过共享的有界字典去重，返回不可变列表。
+ * 全表读取标签时相同的标签只保留一个 String 实例；遇到非字符串元素等非常规内容时退回 Jackson 解析。
+ */
+public class TagListTypeHandler extends BaseTypeHandler<List<String>> {
+
+    private static final Logger log = LoggerFactory.getLogger(TagListTypeHandler.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final TypeReference<List<String>> TAG_LIST_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * 字典最多收录的标签数，超出后新标签不再去重
+     */
+    private static final int MAX_DICTIONARY_SIZE = 10000;
+
+    /**
+     * 超过该长度的标签不收录
+     */
+    private static final int MAX_TAG_LENGTH = 64;
+
+    private static final ConcurrentHashMap<String, String> DICTIONARY = new ConcurrentHashMap<>();
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, List<String> parameter, JdbcType jdbcType) throws SQLException {
+        ps.setString(i, toJson(parameter));
+    }
+
+    @Override
+    public List<String> getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return parse(rs.getString(columnName));
+    }
+
+    @Override
+    public List<String> getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return parse(rs.getString(columnIndex));
+    }
+
+    @Override
+    public List<String> getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getString(columnIndex));
+    }
+
+    /**
+     * 返回字典中的同值实例，字典已满时原样返回
+     */
+    public static String intern(String tag) {
+        String interned = DICTIONARY.get(tag);
+        if (interned != null) {
+            return interned;
+        }
+        if (tag.length() > MAX_TAG_LENGTH || DICTIONARY.size() >= MAX_DICTIONARY_SIZE) {
+            return tag;
+        }
+        interned = DICTIONARY.putIfAbsent(tag, tag);
+        return interned == null ? tag : interned;
+    }
+
+    private static List<String> parse(String json) throws SQLException {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        List<String> tags = parseStringArray(json);
+        if (tags != null) {
+            return tags;
+        }
+        try {
+            List<String> fallback = objectMapper.readValue(json, TAG_LIST_TYPE);
+            return fallback == null ? null : List.copyOf(fallback.stream().map(tag -> tag == null ? "" : intern(tag)).toList());
+        } catch (JsonProcessingException e) {
+            log.error("JSON deserialization error: {}", json, e);
+            throw new SQLException("Error deserializing tag list", e);
+        }
+    }
+
+    /**
+     * 解析 ["a","b"] 形式的字符串数组，格式不符时返回 null
+     */
+    private static List<String> parseStringArray(String json) {
+        int length = json.length();
+        int index = skipWhitespace(json, 0);
+        if (index >= length || json.charAt(index) != '[') {
+            return null;
+        }
+        index = skipWhitespace(json, index + 1);
+        if (index < length && json.charAt(index) == ']') {
+            return skipWhitespace(json, index + 1) == length ? List.of() : null;
+        }
+        List<String> tags = new ArrayList<>();
+        while (index < length) {
+            if (json.charAt(index) != '"') {
+                return null;
+            }
+            int start = index + 1;
+            int end = start;
+            boolean escaped = false;
+            while (end < length && json.charAt(end) != '"') {
+                if (json.charAt(end) == '\\') {
+                    escaped = true;
+                    end++;
+                }
+                end++;
+            }
+            if (end >= length) {
+                return null;
+            }
+            String tag = escaped ? unescape(json, start, end) : json.substring(start, end);
+            if (tag == null) {
+                return null;
+            }
+            tags.add(intern(tag));
+
+            index = skipWhitespace(json, end + 1);
+            if (index >= length) {
+                return null;
+            }
+            char separator = json.charAt(index);
+            if (separator == ']') {
+                return skipWhitespace(json, index + 1) == length ? List.copyOf(tags) : null;
+            }
+            if (separator != ',') {
+                return null;
+            }
+            index = skipWhitespace(json, index + 1);
+        }
+        return null;
+    }
+
+    private static String unescape(String json, int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = json.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            char next = json.charAt(++i);
+            switch (next) {
+                case '"', '\\', '/' -> builder.append(next);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (i + 4 >= end) {
+                        return null;
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(json, i + 1, i + 5, 16));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    i += 4;
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int skipWhitespace(String json, int index) {
+        while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static String toJson(List<String> tags) {
+        StringBuilder builder = new StringBuilder(tags.size() * 8 + 2).append('[');
+        for (int i = 0; i < tags.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('"');
+            String tag = tags.get(i) == null ? "" : tags.get(i);
+            for (int j = 0; j < tag.length(); j++) {
+                char c = tag.charAt(j);
+                switch (c) {
+                    case '"' -> builder.append("\\\"");
+                    case '\\' -> builder.append("\\\\");
+                    case '\n' -> builder.append("\\n");
+                    case '\r' -> builder.append("\\r");
+                    case '\t' -> builder.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            builder.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            builder.append(c);
+                        }
+                    }
+                }
+            }
+            builder.append('"');
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.lcj.zhiyin.benchmark;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * 性能对比测试的公共计时方法
+ * <p>
+ * 对比测试都标记 @Tag("benchmark")，默认不随 mvn test 执行，通过 mvn test -Pbenchmark 运行，结果输出到日志。
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 先预热再计时，返回每次操作的平均耗时（纳秒）；保留最后一次结果，避免被 JIT 当作无用代码消除
+     */
+    public static long nanosPerOp(Callable<?> operation, int warmupIterations, int measureIterations) {
+        try {
+            Object sink = null;
+            for (int i = 0; i < warmupIterations; i++) {
+                sink = operation.call();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < measureIterations; i++) {
+                sink = operation.call();
+            }
+            long nanosPerOp = (System.nanoTime() - start) / measureIterations;
+            Objects.requireNonNull(sink);
+            return nanosPerOp;
+        } catch (Exception e) {
+            throw new IllegalStateException("基准测试执行失败", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.lcj.zhiyin.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 二级缓存软过期刷新测试（Redis 为 mock，刷新在调用线程中同步执行）
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TwoLevelCacheTest {
+
+    private static final String REDIS_KEY = "zhiyin:cache:recommend_users:1-10";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(valueOperations).when(redisTemplate).opsForValue();
+        cache = new TwoLevelCache("recommend_users", Caffeine.newBuilder().build(), redisTemplate,
+                Duration.ofMinutes(10), Duration.ofMinutes(8), Runnable::run, invalidationPublisher);
+        // 已超过软过期时间的旧条目
+        doReturn(new CacheEntry("stale", 1)).when(valueOperations).get(REDIS_KEY);
+    }
+
+    @Test
+    void staleEntryIsNotRefreshedWithoutRegisteredLoader() {
+        AtomicInteger valueLoaderCalls = new AtomicInteger();
+
+        String value = cache.get("1-10", () -> {
+            valueLoaderCalls.incrementAndGet();
+            return "fresh";
+        });
+
+        assertEquals("stale", value);
+        assertEquals(0, valueLoaderCalls.get());
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    void staleEntryIsRefreshedThroughRegisteredLoader() {
+        AtomicInteger valueLoaderCalls = new AtomicInteger();
+        cache.setRefreshLoader(key -> "refreshed:" + key);
+
+        String value = cache.get("1-10", () -> {
+            valueLoaderCalls.incrementAndGet();
+            return "fresh";
+        });
+
+        assertEquals("stale", value);
+        // 请求传入的 valueLoader 不会在后台刷新中被调用
+        assertEquals(0, valueLoaderCalls.get());
+        verify(valueOperations).set(eq(REDIS_KEY),
+                argThat(entry -> "refreshed:1-10".equals(((CacheEntry) entry).getValue())), eq(Duration.ofMinutes(10)));
+        verify(invalidationPublisher).publish("recommend_users", REDIS_KEY);
+    }
+}
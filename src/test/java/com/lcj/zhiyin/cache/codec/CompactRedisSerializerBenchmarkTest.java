@@ -0,0 +1,103 @@
+package com.lcj.zhiyin.cache.codec;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.lcj.zhiyin.cache.CacheEntry;
+import com.lcj.zhiyin.model.domain.User;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.lcj.zhiyin.benchmark.BenchmarkSupport.nanosPerOp;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Smile + LZ4 与 JDK 序列化的体积和耗时对比
+ * <p>
+ * 以推荐用户缓存（20 个用户的分页）和匹配用户缓存（10 个用户的列表）为样本，先预热再计时，
+ * 输出体积和每次序列化 + 反序列化的平均耗时，只断言解码结果正确。
+ */
+@Slf4j
+@Tag("benchmark")
+class CompactRedisSerializerBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+
+    private static final int MEASURE_ITERATIONS = 5_000;
+
+    private final RedisSerializer<Object> compactSerializer =
+            new CompactRedisSerializer(new SmileValueCodec(), new JdkValueCodec(), 1024);
+
+    @SuppressWarnings("unchecked")
+    private final RedisSerializer<Object> jdkSerializer = (RedisSerializer<Object>) RedisSerializer.java();
+
+    @Test
+    void recommendPage() {
+        Page<User> userPage = new Page<>(1, 20, 1000);
+        userPage.setRecords(users(20));
+        CacheEntry cacheEntry = new CacheEntry(userPage, System.currentTimeMillis());
+
+        Result compact = measure(compactSerializer, cacheEntry);
+        Result jdk = measure(jdkSerializer, cacheEntry);
+        report("recommend_users page(20)", compact, jdk);
+
+        Page<?> decoded = (Page<?>) ((CacheEntry) compactSerializer.deserialize(compactSerializer.serialize(cacheEntry))).getValue();
+        assertEquals(userPage.getTotal(), decoded.getTotal());
+        assertEquals(userPage.getRecords(), decoded.getRecords());
+    }
+
+    @Test
+    void matchList() {
+        CacheEntry cacheEntry = new CacheEntry(users(10), 0);
+
+        Result compact = measure(compactSerializer, cacheEntry);
+        Result jdk = measure(jdkSerializer, cacheEntry);
+        report("match_users list(10)", compact, jdk);
+
+        CacheEntry decoded = (CacheEntry) compactSerializer.deserialize(compactSerializer.serialize(cacheEntry));
+        assertEquals(cacheEntry.getValue(), decoded.getValue());
+    }
+
+    private static Result measure(RedisSerializer<Object> serializer, Object value) {
+        int bytes = serializer.serialize(value).length;
+        long nanosPerOp = nanosPerOp(() -> serializer.deserialize(serializer.serialize(value)),
+                WARMUP_ITERATIONS, MEASURE_ITERATIONS);
+        return new Result(bytes, nanosPerOp);
+    }
+
+    private static void report(String sample, Result compact, Result jdk) {
+        log.info(String.format("%s: Smile+LZ4 %d bytes, %.1f us/op | JDK %d bytes, %.1f us/op | 体积 %.0f%%",
+                sample, compact.bytes, compact.nanosPerOp / 1000.0, jdk.bytes, jdk.nanosPerOp / 1000.0,
+                compact.bytes * 100.0 / jdk.bytes));
+    }
+
+    private static List<User> users(int count) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    User user = new User();
+                    user.setId(10_000L + i);
+                    user.setUsername("用户" + i);
+                    user.setUserAccount("account" + i);
+                    user.setAvatarUrl("https://cdn.example.com/avatar/" + i + ".png");
+                    user.setGender(i % 2);
+                    user.setPhone("1380000" + String.format("%04d", i));
+                    user.setEmail("user" + i + "@example.com");
+                    user.setTags(List.of("java", "spring", i % 2 == 0 ? "男" : "女", "大" + (i % 4 + 1)));
+                    user.setUserStatus(0);
+                    user.setUserRole(0);
+                    user.setCreateTime(now.minusDays(i));
+                    user.setUpdateTime(now);
+                    return user;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private record Result(int bytes, long nanosPerOp) {
+    }
+}
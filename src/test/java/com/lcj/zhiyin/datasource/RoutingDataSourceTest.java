@@ -0,0 +1,130 @@
+package com.lcj.zhiyin.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 读写分离路由测试：主从库为两个 H2 内存库，各有一行记录自己的名称
+ */
+class RoutingDataSourceTest {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private static TransactionTemplate readWriteTransaction;
+
+    private static TransactionTemplate readOnlyTransaction;
+
+    private static NodeReader nodeReader;
+
+    @BeforeAll
+    static void setUp() {
+        RoutingDataSource routingDataSource = new RoutingDataSource();
+        DataSource primary = h2("primary");
+        routingDataSource.setTargetDataSources(Map.<Object, Object>of(
+                DataSourceType.PRIMARY, primary,
+                DataSourceType.REPLICA, h2("replica")));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new NodeReader(jdbcTemplate));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new DataSourceRoutingAspect(Duration.ZERO));
+        nodeReader = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void contextIsRestored() {
+        assertNull(DataSourceContextHolder.get());
+    }
+
+    @Test
+    void defaultsToPrimary() {
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        assertEquals("primary", readWriteTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readReplicaMethodUsesReplica() {
+        assertEquals("replica", nodeReader.readNode());
+    }
+
+    @Test
+    void readReplicaMethodInWriteTransactionStaysOnPrimary() {
+        assertEquals("primary", readWriteTransaction.execute(status -> nodeReader.readNode()));
+    }
+
+    @Test
+    void callOnPrimaryOverridesReadReplica() {
+        // 回填缓存时即使经过 @ReadReplica 方法也读主库
+        assertEquals("primary", DataSourceContextHolder.callOnPrimary(nodeReader::readNode));
+    }
+
+    @Test
+    void callOnPrimaryRestoresOuterReplicaContext() {
+        DataSourceType previous = DataSourceContextHolder.set(DataSourceType.REPLICA);
+        try {
+            assertEquals("primary", DataSourceContextHolder.callOnPrimary(RoutingDataSourceTest::currentNode));
+            assertEquals("replica", currentNode());
+        } finally {
+            DataSourceContextHolder.restore(previous);
+        }
+    }
+
+    private static String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("DROP TABLE IF EXISTS node");
+        template.execute("CREATE TABLE node (name VARCHAR(16))");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    static class NodeReader {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        NodeReader(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @ReadReplica
+        public String readNode() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+    }
+}
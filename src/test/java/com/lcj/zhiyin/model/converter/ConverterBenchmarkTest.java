@@ -0,0 +1,50 @@
+package com.lcj.zhiyin.model.converter;
+
+import com.lcj.zhiyin.model.domain.Team;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.model.vo.TeamUserVO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static com.lcj.zhiyin.benchmark.BenchmarkSupport.nanosPerOp;
+
+/**
+ * 手写转换与 BeanUtils.copyProperties 的耗时对比，结果一致性见 ConverterTest
+ */
+@Slf4j
+@Tag("benchmark")
+class ConverterBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+
+    private static final int MEASURE_ITERATIONS = 200_000;
+
+    @Test
+    void toSafetyUser() {
+        User user = ConverterTest.user();
+        report("toSafetyUser", measure(UserConverter::toSafetyUser, user), measure(ConverterTest::beanUtilsSafetyUser, user));
+    }
+
+    @Test
+    void toTeamUserVO() {
+        Team team = ConverterTest.team();
+        report("toTeamUserVO", measure(TeamConverter::toTeamUserVO, team), measure(ConverterTest::beanUtilsTeamUserVO, team));
+    }
+
+    @Test
+    void copyOfTeamUserVO() {
+        TeamUserVO source = ConverterTest.teamUserVO();
+        report("copyOf(TeamUserVO)", measure(TeamConverter::copyOf, source), measure(ConverterTest::beanUtilsCopy, source));
+    }
+
+    private static <T, R> long measure(Function<T, R> converter, T source) {
+        return nanosPerOp(() -> converter.apply(source), WARMUP_ITERATIONS, MEASURE_ITERATIONS);
+    }
+
+    private static void report(String name, long converterNanos, long beanUtilsNanos) {
+        log.info("{}: 手写转换 {} ns/op | BeanUtils {} ns/op", name, converterNanos, beanUtilsNanos);
+    }
+}
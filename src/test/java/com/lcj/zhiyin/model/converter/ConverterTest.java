@@ -0,0 +1,100 @@
+package com.lcj.zhiyin.model.converter;
+
+import com.lcj.zhiyin.model.domain.Team;
+import com.lcj.zhiyin.model.domain.User;
+import com.lcj.zhiyin.model.vo.TeamUserVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 手写转换与替换前的 BeanUtils.copyProperties 写法结果一致
+ */
+class ConverterTest {
+
+    private static final String[] SAFETY_IGNORED = {"userPassword", "createTime", "updateTime", "isDelete", "avatarUrl"};
+
+    @Test
+    void safetyUserMatchesBeanUtils() {
+        User user = user();
+        assertEquals(beanUtilsSafetyUser(user), UserConverter.toSafetyUser(user));
+    }
+
+    @Test
+    void teamUserVOMatchesBeanUtils() {
+        Team team = team();
+        assertEquals(beanUtilsTeamUserVO(team), TeamConverter.toTeamUserVO(team));
+    }
+
+    @Test
+    void teamUserVOCopyMatchesBeanUtils() {
+        TeamUserVO source = teamUserVO();
+        assertEquals(beanUtilsCopy(source), TeamConverter.copyOf(source));
+    }
+
+    static User beanUtilsSafetyUser(User source) {
+        User target = new User();
+        BeanUtils.copyProperties(source, target, SAFETY_IGNORED);
+        return target;
+    }
+
+    static TeamUserVO beanUtilsTeamUserVO(Team source) {
+        TeamUserVO target = new TeamUserVO();
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+
+    static TeamUserVO beanUtilsCopy(TeamUserVO source) {
+        TeamUserVO target = new TeamUserVO();
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+
+    static TeamUserVO teamUserVO() {
+        TeamUserVO teamUserVO = TeamConverter.toTeamUserVO(team());
+        teamUserVO.setCreateUser(UserConverter.toSafetyUser(user()));
+        teamUserVO.setHasJoinNum(3);
+        teamUserVO.setHasJoin(true);
+        return teamUserVO;
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("测试用户");
+        user.setUserAccount("tester");
+        user.setAvatarUrl("https://cdn.example.com/avatar/1.png");
+        user.setGender(1);
+        user.setUserPassword("hashed");
+        user.setPhone("13800000000");
+        user.setEmail("tester@example.com");
+        user.setTags(List.of("java", "男", "大三"));
+        user.setUserStatus(0);
+        user.setCreateTime(LocalDateTime.of(2024, 1, 1, 12, 0));
+        user.setUpdateTime(LocalDateTime.of(2024, 6, 1, 12, 0));
+        user.setIsDelete(0);
+        user.setUserRole(0);
+        return user;
+    }
+
+    static Team team() {
+        Team team = new Team();
+        team.setId(100L);
+        team.setName("算法学习小组");
+        team.setDescription("每周刷题");
+        team.setMaxNum(5);
+        team.setMemberCount(3);
+        team.setExpireTime(LocalDateTime.of(2030, 1, 1, 0, 0));
+        team.setUserId(1L);
+        team.setStatus(0);
+        team.setPassword("secret");
+        team.setCreateTime(LocalDateTime.of(2024, 1, 1, 12, 0));
+        team.setUpdateTime(LocalDateTime.of(2024, 6, 1, 12, 0));
+        team.setIsDelete(0);
+        return team;
+    }
+}
@@ -0,0 +1,130 @@
+package com.lcj.zhiyin.service.impl;
+
+import com.lcj.zhiyin.model.enums.JoinTicketStatusEnum;
+import com.lcj.zhiyin.service.TeamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 排队加入队伍消费逻辑测试（Redis 和 TeamService 均为 mock）
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TeamJoinQueueServiceImplTest {
+
+    private static final long TEAM_ID = 1L;
+
+    private static final String STREAM_KEY = "zhiyin:team:join:stream:" + TEAM_ID;
+
+    private static final String TICKET_KEY_PREFIX = "zhiyin:team:join:ticket:";
+
+    private static final String PENDING = String.valueOf(JoinTicketStatusEnum.PENDING.getValue());
+
+    private static final String FAILED = String.valueOf(JoinTicketStatusEnum.FAILED.getValue());
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private TeamService teamService;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    private TeamJoinQueueServiceImpl teamJoinQueueService;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(streamOperations).when(redisTemplate).opsForStream();
+        doReturn(hashOperations).when(redisTemplate).opsForHash();
+        doReturn(valueOperations).when(redisTemplate).opsForValue();
+        doReturn(setOperations).when(redisTemplate).opsForSet();
+        doReturn(0L).when(streamOperations).size(STREAM_KEY);
+        doReturn(PENDING).when(hashOperations).get(anyString(), eq("status"));
+        doReturn("7").when(hashOperations).get(anyString(), eq("userId"));
+        teamJoinQueueService = new TeamJoinQueueServiceImpl(redisTemplate, teamService);
+    }
+
+    @Test
+    void malformedRecordFailsItsTicketAndIsDeleted() {
+        List<MapRecord<String, Object, Object>> batch = List.of(
+                record("1-0", "t1", "abc"),
+                record("2-0", "t2", "8"));
+        doReturn(batch, List.of()).when(streamOperations).range(eq(STREAM_KEY), any(), any());
+        doReturn(Map.of()).when(teamService).joinTeamInBatch(TEAM_ID, List.of(8L));
+
+        teamJoinQueueService.processQueue(TEAM_ID);
+
+        verify(teamService).joinTeamInBatch(TEAM_ID, List.of(8L));
+        verify(hashOperations).putAll(eq(TICKET_KEY_PREFIX + "t1"),
+                argThat((Map<?, ?> map) -> FAILED.equals(map.get("status"))));
+        verify(streamOperations).delete(eq(STREAM_KEY), any(RecordId[].class));
+    }
+
+    @Test
+    void repeatedDataAccessFailureFailsTicketsAfterMaxAttempts() {
+        List<MapRecord<String, Object, Object>> batch = List.of(record("1-0", "t1", "8"));
+        doReturn(batch, batch, batch, batch, batch, List.of())
+                .when(streamOperations).range(eq(STREAM_KEY), any(), any());
+        doThrow(new QueryTimeoutException("timeout")).when(teamService).joinTeamInBatch(anyLong(), anyList());
+        doReturn(1L, 2L, 3L, 4L, 5L).when(valueOperations).increment(anyString());
+
+        for (int i = 1; i < TeamJoinQueueServiceImpl.MAX_ATTEMPTS; i++) {
+            assertThrows(QueryTimeoutException.class, () -> teamJoinQueueService.processQueue(TEAM_ID));
+        }
+        verify(streamOperations, never()).delete(eq(STREAM_KEY), any(RecordId[].class));
+
+        teamJoinQueueService.processQueue(TEAM_ID);
+
+        verify(hashOperations).putAll(eq(TICKET_KEY_PREFIX + "t1"),
+                argThat((Map<?, ?> map) -> FAILED.equals(map.get("status"))));
+        verify(streamOperations).delete(eq(STREAM_KEY), any(RecordId[].class));
+    }
+
+    @Test
+    void stopsAfterMaxBatchesAndKeepsTeamQueued() {
+        List<MapRecord<String, Object, Object>> batch = List.of(record("1-0", "t1", "8"));
+        doReturn(batch).when(streamOperations).range(eq(STREAM_KEY), any(), any());
+        doReturn(Map.of()).when(teamService).joinTeamInBatch(anyLong(), anyList());
+
+        teamJoinQueueService.processQueue(TEAM_ID);
+
+        verify(streamOperations, times(TeamJoinQueueServiceImpl.MAX_BATCHES_PER_TURN))
+                .delete(eq(STREAM_KEY), any(RecordId[].class));
+        verify(setOperations, never()).remove(anyString(), any());
+    }
+
+    private static MapRecord<String, Object, Object> record(String id, String ticket, String userId) {
+        Map<Object, Object> value = new HashMap<>();
+        value.put("ticket", ticket);
+        value.put("userId", userId);
+        return StreamRecords.newRecord().in(STREAM_KEY).withId(RecordId.of(id)).ofMap(value);
+    }
+}
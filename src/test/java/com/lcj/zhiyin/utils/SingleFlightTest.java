@@ -0,0 +1,84 @@
+package com.lcj.zhiyin.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求合并测试
+ */
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                loadCount.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return 42;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Integer> waiter = executor.submit(() -> singleFlight.execute("key", () -> {
+                loadCount.incrementAndGet();
+                return -1;
+            }));
+            release.countDown();
+
+            assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+            assertEquals(42, waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loadCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waiterTimesOutWhenLoaderHangs() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofMillis(100));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> singleFlight.execute("key", () -> {
+                loading.countDown();
+                await(release);
+                return 42;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> singleFlight.execute("key", () -> -1));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loaderExceptionIsRethrownAndKeyIsReleased() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalArgumentException("boom");
+        }));
+        assertEquals(1, singleFlight.execute("key", () -> 1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.lcj.zhiyin.utils;
+
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.lcj.zhiyin.benchmark.BenchmarkSupport.nanosPerOp;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TagListTypeHandler 与 MyBatis-Plus JacksonTypeHandler 的解析耗时和内存占用对比
+ * <p>
+ * 模拟全表读取标签：标签从一个小词表中随机组合，先预热再计时。
+ * 内存以解析结果中不同 String 实例的数量衡量（可稳定断言），另输出 GC 后的堆占用变化作参考。
+ */
+@Slf4j
+@Tag("benchmark")
+class TagListTypeHandlerBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final List<String> VOCABULARY = List.of("java", "python", "c++", "go", "前端", "后端", "算法",
+            "男", "女", "大一", "大二", "大三", "大四", "研一", "考研", "求职", "篮球", "足球", "音乐", "摄影");
+
+    @Test
+    void compareWithJacksonTypeHandler() throws SQLException {
+        List<String> rows = randomRows();
+        TagListTypeHandler tagListHandler = new TagListTypeHandler();
+        JacksonTypeHandler jacksonHandler = new JacksonTypeHandler(List.class);
+
+        Result tagList = measure(tagListHandler, rows);
+        Result jackson = measure(jacksonHandler, rows);
+        report("TagListTypeHandler", tagList);
+        report("JacksonTypeHandler", jackson);
+
+        assertEquals(jackson.parsed, tagList.parsed);
+        // 相同标签共享同一个实例，实例数不超过词表大小
+        assertTrue(tagList.distinctInstances <= VOCABULARY.size());
+        assertTrue(jackson.distinctInstances > tagList.distinctInstances);
+    }
+
+    private static List<String> randomRows() {
+        Random random = new Random(42);
+        return IntStream.range(0, ROWS)
+                .mapToObj(i -> random.ints(1 + random.nextInt(5), 0, VOCABULARY.size())
+                        .distinct()
+                        .mapToObj(index -> "\"" + VOCABULARY.get(index) + "\"")
+                        .collect(Collectors.joining(",", "[", "]")))
+                .collect(Collectors.toList());
+    }
+
+    private static Result measure(BaseTypeHandler<?> handler, List<String> rows) throws SQLException {
+        long nanos = nanosPerOp(() -> parseAll(handler, rows), WARMUP_ROUNDS, 1);
+
+        long heapBefore = usedHeap();
+        List<List<?>> parsed = parseAll(handler, rows);
+        long heapBytes = usedHeap() - heapBefore;
+
+        Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        parsed.forEach(instances::addAll);
+        return new Result(parsed, nanos, instances.size(), heapBytes);
+    }
+
+    private static void report(String name, Result result) {
+        log.info(String.format("%s: %.1f ms, 不同 String 实例 %d, 堆增量 %.1f MB",
+                name, result.nanos / 1e6, result.distinctInstances, result.heapBytes / 1048576.0));
+    }
+
+    private static List<List<?>> parseAll(BaseTypeHandler<?> handler, List<String> rows) throws SQLException {
+        List<List<?>> parsed = new ArrayList<>(rows.size());
+        String[] current = new String[1];
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class[]{ResultSet.class},
+                (proxy, method, args) -> "getString".equals(method.getName()) ? current[0] : null);
+        for (String row : rows) {
+            current[0] = row;
+            parsed.add((List<?>) handler.getNullableResult(rs, "tags"));
+        }
+        return parsed;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private record Result(List<List<?>> parsed, long nanos, int distinctInstances, long heapBytes) {
+    }
+}
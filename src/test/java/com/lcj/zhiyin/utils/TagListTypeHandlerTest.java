@@ -0,0 +1,104 @@
+package com.lcj.zhiyin.utils;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 标签列表类型处理器解析测试
+ */
+class TagListTypeHandlerTest {
+
+    private static final String COLUMN = "tags";
+
+    private final TagListTypeHandler handler = new TagListTypeHandler();
+
+    @Test
+    void parsesPlainArray() throws SQLException {
+        assertEquals(List.of("java", "男", "大一"), parse("[\"java\",\"男\",\"大一\"]"));
+    }
+
+    @Test
+    void parsesEmptyAndNull() throws SQLException {
+        assertEquals(List.of(), parse("[]"));
+        assertEquals(List.of(), parse("  [ ]  "));
+        assertNull(parse(null));
+        assertNull(parse(""));
+    }
+
+    @Test
+    void toleratesWhitespace() throws SQLException {
+        assertEquals(List.of("a", "b"), parse(" [ \"a\" ,\n\t\"b\" ] "));
+    }
+
+    @Test
+    void parsesEscapes() throws SQLException {
+        assertEquals(List.of("a\"b", "c\\d", "e/f", "g\nh", "i\tj", "\b\f\r"),
+                parse("[\"a\\\"b\",\"c\\\\d\",\"e\\/f\",\"g\\nh\",\"i\\tj\",\"\\b\\f\\r\"]"));
+    }
+
+    @Test
+    void parsesUnicodeEscapes() throws SQLException {
+        assertEquals(List.of("中文", "A", "x\u0001y"), parse("[\"\\u4e2d\\u6587\",\"\\u0041\",\"x\\u0001y\"]"));
+        // 大写十六进制
+        assertEquals(List.of("é"), parse("[\"\\u00E9\"]"));
+    }
+
+    @Test
+    void nullElementsBecomeEmptyStrings() throws SQLException {
+        assertEquals(List.of("a", ""), parse("[\"a\",null]"));
+    }
+
+    @Test
+    void nonStringElementsFallBackToJackson() throws SQLException {
+        assertEquals(List.of("1", "a", "true"), parse("[1,\"a\",true]"));
+    }
+
+    @Test
+    void malformedInputThrowsSqlException() {
+        for (String json : List.of("[\"a\"", "[\"a\",]", "[\"a\" \"b\"]", "\"a\"", "{\"a\":1}",
+                "[\"\\u12\"]", "[\"\\uzzzz\"]", "[\"\\x\"]", "[\"a\\\"]")) {
+            assertThrows(SQLException.class, () -> parse(json), json);
+        }
+    }
+
+    @Test
+    void resultIsImmutableAndInterned() throws SQLException {
+        List<String> first = parse("[\"spring\"]");
+        List<String> second = parse("[ \"spring\" ]");
+        assertThrows(UnsupportedOperationException.class, () -> first.add("x"));
+        assertSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    void writesEscapedJsonThatParsesBack() throws SQLException {
+        List<String> tags = Arrays.asList("a\"b", "c\\d", "e\nf", "g\th", "\u0001", null, "中文");
+        PreparedStatement ps = mock(PreparedStatement.class);
+        handler.setNonNullParameter(ps, 1, tags, null);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(ps).setString(eq(1), captor.capture());
+        String json = captor.getValue();
+        assertEquals("[\"a\\\"b\",\"c\\\\d\",\"e\\nf\",\"g\\th\",\"\\u0001\",\"\",\"中文\"]", json);
+
+        List<String> expected = new ArrayList<>(tags);
+        expected.set(5, "");
+        assertEquals(expected, parse(json));
+    }
+
+    private List<String> parse(String json) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(COLUMN)).thenReturn(json);
+        return handler.getNullableResult(rs, COLUMN);
+    }
+}